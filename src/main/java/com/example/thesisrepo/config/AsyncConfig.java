@@ -0,0 +1,63 @@
+package com.example.thesisrepo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+  /**
+   * Fixed pool for post-submission processing stages. The pipeline never hands
+   * it more jobs than it has workers (the rest wait in processing_job), so the
+   * small queue only covers a worker that is still finishing its last task.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor processingExecutor(@Value("${processing.workers:2}") int workers) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(workers);
+    executor.setMaxPoolSize(workers);
+    executor.setQueueCapacity(workers);
+    executor.setThreadNamePrefix("processing-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Page ranges of the PDF format checker, one thread per CPU unless
+   * {@code pdf-check.threads} says otherwise. Only processing workers submit to
+   * it, a few ranges each, so the queue stays short.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor pdfCheckExecutor(@Value("${pdf-check.threads:0}") int threads) {
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(size);
+    executor.setMaxPoolSize(size);
+    executor.setThreadNamePrefix("pdf-check-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * One thread for rebuilding the public catalog snapshot, with room for one
+   * queued rebuild. Further requests are dropped: the queued rebuild has not
+   * read the database yet, so it will already include whatever triggered them.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor catalogSnapshotExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(1);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+    executor.setThreadNamePrefix("catalog-snapshot-");
+    executor.initialize();
+    return executor;
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.thesisrepo.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Runs Flyway after Hibernate instead of before it. The tables are created by
+ * Hibernate (ddl-auto=update) and the migrations from V11 on only add to them,
+ * so on an empty database they need Hibernate to have gone first; the older
+ * scripts are covered by the baseline (spring.flyway.baseline-version).
+ */
+@Configuration
+public class FlywayConfig {
+
+  // Boot's initializer would migrate before the EntityManagerFactory exists
+  @Bean
+  public FlywayMigrationStrategy deferredMigration() {
+    return flyway -> { };
+  }
+
+  @Bean
+  @DependsOn("entityManagerFactory")
+  public InitializingBean flywayAfterHibernate(ObjectProvider<Flyway> flyway) {
+    return () -> flyway.ifAvailable(Flyway::migrate);
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.thesisrepo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.URI;
+
+/**
+ * Client for {@code file.backend=s3}. {@code file.s3.endpoint} points it at any
+ * S3-compatible store (MinIO, a local stand-in, ...), which usually also wants
+ * {@code path-style: true}; blank keys fall back to the default AWS credential chain.
+ */
+@Configuration
+@ConditionalOnProperty(name = "file.backend", havingValue = "s3")
+public class S3Config {
+
+  @Bean(destroyMethod = "close")
+  public S3Client s3Client(
+      @Value("${file.s3.region:us-east-1}") String region,
+      @Value("${file.s3.endpoint:}") String endpoint,
+      @Value("${file.s3.path-style:false}") boolean pathStyle,
+      @Value("${file.s3.access-key:}") String accessKey,
+      @Value("${file.s3.secret-key:}") String secretKey) {
+    S3ClientBuilder builder = S3Client.builder()
+      .region(Region.of(region))
+      .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build());
+    if (!endpoint.isBlank()) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    if (!accessKey.isBlank()) {
+      builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+    }
+    return builder.build();
+  }
+
+  /** Uploads the parts of large PDFs in parallel; each upload keeps at most this many parts in flight. */
+  @Bean
+  public ThreadPoolTaskExecutor s3UploadExecutor(@Value("${file.s3.upload-threads:4}") int threads) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setThreadNamePrefix("s3-upload-");
+    executor.initialize();
+    return executor;
+  }
+}
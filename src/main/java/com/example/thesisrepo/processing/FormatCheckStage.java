@@ -0,0 +1,26 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.service.PdfCheckService;
+import com.example.thesisrepo.thesis.Thesis;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/** Suggests the library checklist ticks; see {@link PdfCheckService}. */
+@Component
+@Order(15)
+@RequiredArgsConstructor
+class FormatCheckStage implements ProcessingStage {
+
+  private final PdfCheckService checks;
+
+  @Override
+  public String name() {
+    return "FORMAT_CHECK";
+  }
+
+  @Override
+  public void run(Thesis thesis) throws Exception {
+    checks.suggest(thesis, checks.check(thesis));
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.service.LocalPdf;
+import com.example.thesisrepo.service.StorageService;
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/** Records {@code thesis.page_count}; cheap, so it goes first. */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+class PageCountStage implements ProcessingStage {
+
+  private final StorageService storage;
+  private final ThesisRepository theses;
+
+  @Override
+  public String name() {
+    return "PAGE_COUNT";
+  }
+
+  @Override
+  public void run(Thesis thesis) throws Exception {
+    try (LocalPdf pdf = LocalPdf.open(storage, thesis.getFilePath());
+         PDDocument doc = Loader.loadPDF(pdf.path().toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+      theses.updatePageCount(thesis.getId(), doc.getNumberOfPages());
+    }
+  }
+}
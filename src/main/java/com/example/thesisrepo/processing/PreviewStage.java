@@ -0,0 +1,99 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.service.LocalPdf;
+import com.example.thesisrepo.service.PreviewCache;
+import com.example.thesisrepo.service.StorageService;
+import com.example.thesisrepo.thesis.Thesis;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Renders the first-page thumbnail and low-resolution previews of the first
+ * {@code previews.pages} pages into the {@link PreviewCache}, so listings can
+ * show a thesis without anyone fetching the PDF. Also re-run on demand when
+ * an image has been evicted.
+ */
+@Component
+@Order(20)
+public class PreviewStage implements ProcessingStage {
+
+  public static final String NAME = "PREVIEW";
+
+  private final StorageService storage;
+  private final PreviewCache cache;
+  private final int thumbnailWidth;
+  private final int pageWidth;
+  private final int pages;
+
+  PreviewStage(StorageService storage,
+               PreviewCache cache,
+               @Value("${previews.thumbnail-width:240}") int thumbnailWidth,
+               @Value("${previews.page-width:800}") int pageWidth,
+               @Value("${previews.pages:10}") int pages) {
+    this.storage = storage;
+    this.cache = cache;
+    this.thumbnailWidth = thumbnailWidth;
+    this.pageWidth = pageWidth;
+    this.pages = pages;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public void run(Thesis thesis) throws Exception {
+    Long id = thesis.getId();
+    int known = thesis.getPageCount() != null ? Math.min(pages, thesis.getPageCount()) : pages;
+    if (cache.contains(PreviewCache.thumbnailKey(id)) && allCached(id, known)) {
+      return; // re-run for an image that has been rendered again since
+    }
+
+    try (LocalPdf pdf = LocalPdf.open(storage, thesis.getFilePath());
+         PDDocument doc = Loader.loadPDF(pdf.path().toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+      if (doc.getNumberOfPages() == 0) {
+        throw new IllegalStateException("PDF has no pages");
+      }
+      PDFRenderer renderer = new PDFRenderer(doc);
+      renderer.setSubsamplingAllowed(true); // previews don't need full-resolution embedded images
+
+      // only what is missing, so a re-run after an eviction does not push out the rest
+      if (!cache.contains(PreviewCache.thumbnailKey(id))) {
+        cache.put(PreviewCache.thumbnailKey(id), render(doc, renderer, 0, thumbnailWidth));
+      }
+      int n = Math.min(pages, doc.getNumberOfPages());
+      for (int page = 1; page <= n; page++) {
+        if (!cache.contains(PreviewCache.pageKey(id, page))) {
+          cache.put(PreviewCache.pageKey(id, page), render(doc, renderer, page - 1, pageWidth));
+        }
+      }
+    }
+  }
+
+  private boolean allCached(Long id, int n) {
+    for (int page = 1; page <= n; page++) {
+      if (!cache.contains(PreviewCache.pageKey(id, page))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static BufferedImage render(PDDocument doc, PDFRenderer renderer, int index, int width) throws IOException {
+    PDRectangle box = doc.getPage(index).getCropBox();
+    boolean rotated = doc.getPage(index).getRotation() % 180 != 0;
+    float points = rotated ? box.getHeight() : box.getWidth();
+    return renderer.renderImage(index, width / points, ImageType.RGB);
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.thesisrepo.processing;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One stage of post-submission processing for one thesis. Rows are the queue:
+ * workers claim QUEUED rows whose {@code runAfter} has passed, and a failed
+ * attempt goes back to QUEUED with a later {@code runAfter} until the stage's
+ * attempts are used up.
+ */
+@Entity
+@Table(name = "processing_job")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProcessingJob {
+  @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long thesisId;
+
+  /** {@link ProcessingStage#name()} */
+  @Column(nullable = false, length = 32)
+  private String stage;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private Status status;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  /** Not claimed before this (retry backoff) */
+  @Column(nullable = false)
+  private Instant runAfter;
+
+  /** Worker holding the job while RUNNING */
+  private String lockedBy;
+
+  private Instant lockedAt;
+
+  @Column(columnDefinition = "text")
+  private String lastError;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  public enum Status { QUEUED, RUNNING, DONE, FAILED }
+}
@@ -0,0 +1,83 @@
+package com.example.thesisrepo.processing;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, Long> {
+
+  List<ProcessingJob> findByThesisIdOrderById(Long thesisId);
+
+  Optional<ProcessingJob> findByThesisIdAndStage(Long thesisId, String stage);
+
+  /** Theses with a stored file but no jobs at all (stored before the pipeline existed), in id order. */
+  @Query("""
+      SELECT t.id FROM Thesis t
+      WHERE t.filePath IS NOT NULL AND t.id > :after
+        AND NOT EXISTS (SELECT 1 FROM ProcessingJob j WHERE j.thesisId = t.id)
+      ORDER BY t.id
+      """)
+  List<Long> findThesesWithoutJobs(@Param("after") Long after, Pageable limit);
+
+  @Query("SELECT j.id FROM ProcessingJob j WHERE j.status = :status AND j.runAfter <= :now ORDER BY j.runAfter, j.id")
+  List<Long> findRunnable(@Param("status") ProcessingJob.Status status, @Param("now") Instant now, Pageable limit);
+
+  /** Takes a QUEUED job for {@code worker}; 0 when another worker or node got it first. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("""
+      UPDATE ProcessingJob j SET j.status = :running, j.attempts = j.attempts + 1,
+        j.lockedBy = :worker, j.lockedAt = :now, j.updatedAt = :now
+      WHERE j.id = :id AND j.status = :queued
+      """)
+  int claim(@Param("id") Long id, @Param("worker") String worker, @Param("now") Instant now,
+            @Param("queued") ProcessingJob.Status queued, @Param("running") ProcessingJob.Status running);
+
+  /** Records the outcome of a claimed job and lets go of it. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("""
+      UPDATE ProcessingJob j SET j.status = :status, j.runAfter = :runAfter, j.lastError = :error,
+        j.lockedBy = null, j.lockedAt = null, j.updatedAt = :now
+      WHERE j.id = :id
+      """)
+  int release(@Param("id") Long id, @Param("status") ProcessingJob.Status status,
+              @Param("runAfter") Instant runAfter, @Param("error") String error, @Param("now") Instant now);
+
+  /** Puts jobs whose worker went away (lease expired) back in the queue. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("""
+      UPDATE ProcessingJob j SET j.status = :queued, j.lockedBy = null, j.lockedAt = null, j.updatedAt = :now
+      WHERE j.status = :running AND j.lockedAt < :cutoff
+      """)
+  int requeueExpired(@Param("cutoff") Instant cutoff, @Param("now") Instant now,
+                     @Param("running") ProcessingJob.Status running, @Param("queued") ProcessingJob.Status queued);
+
+  /** Queues a DONE stage to run again (e.g. its output was evicted); queued, running or failed ones are left alone. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("""
+      UPDATE ProcessingJob j SET j.status = :queued, j.attempts = 0, j.runAfter = :now, j.updatedAt = :now
+      WHERE j.thesisId = :thesisId AND j.stage = :stage AND j.status = :done
+      """)
+  int rerun(@Param("thesisId") Long thesisId, @Param("stage") String stage, @Param("now") Instant now,
+            @Param("done") ProcessingJob.Status done, @Param("queued") ProcessingJob.Status queued);
+
+  /** Gives FAILED stages of a thesis a fresh set of attempts. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("""
+      UPDATE ProcessingJob j SET j.status = :queued, j.attempts = 0, j.runAfter = :now, j.updatedAt = :now
+      WHERE j.thesisId = :thesisId AND j.status = :failed
+      """)
+  int retryFailed(@Param("thesisId") Long thesisId, @Param("now") Instant now,
+                  @Param("failed") ProcessingJob.Status failed, @Param("queued") ProcessingJob.Status queued);
+}
@@ -0,0 +1,233 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Durable post-submission processing. {@link #submit} only inserts one
+ * {@link ProcessingJob} row per {@link ProcessingStage}; the poller then claims
+ * at most as many runnable rows as this node has free workers
+ * ({@code processing.workers}) and runs them on {@code processingExecutor}.
+ *
+ * Everything else waits in the table, so a submission rush grows the queue,
+ * not the thread count or the heap, and queued work survives a restart.
+ * Claims are conditional updates, so several nodes can share the table. A
+ * failed attempt is retried with exponential backoff from
+ * {@code processing.retry-backoff}; a job whose worker died is requeued once
+ * its {@code processing.lease} runs out.
+ */
+@Slf4j
+@Service
+public class ProcessingPipeline {
+
+  private final ProcessingJobRepository jobs;
+  private final ThesisRepository theses;
+  private final ThreadPoolTaskExecutor executor;
+  private final Map<String, ProcessingStage> stages = new LinkedHashMap<>();
+  private final Semaphore slots;
+  private final String worker = ManagementFactory.getRuntimeMXBean().getName();
+
+  private final boolean enabled;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Duration lease;
+
+  public ProcessingPipeline(ProcessingJobRepository jobs,
+                            ThesisRepository theses,
+                            List<ProcessingStage> stages,
+                            @Qualifier("processingExecutor") ThreadPoolTaskExecutor executor,
+                            @Value("${processing.enabled:true}") boolean enabled,
+                            @Value("${processing.max-attempts:3}") int maxAttempts,
+                            @Value("${processing.retry-backoff:30s}") Duration retryBackoff,
+                            @Value("${processing.lease:30m}") Duration lease) {
+    this.jobs = jobs;
+    this.theses = theses;
+    this.executor = executor;
+    stages.forEach(s -> this.stages.put(s.name(), s));
+    this.slots = new Semaphore(executor.getMaxPoolSize());
+    this.enabled = enabled;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+    this.lease = lease;
+  }
+
+  /** Queues every stage for a newly stored thesis; returns without doing any of the work. */
+  public void submit(Thesis thesis) {
+    Instant now = Instant.now();
+    jobs.saveAll(stages.keySet().stream()
+      .map(stage -> ProcessingJob.builder()
+        .thesisId(thesis.getId())
+        .stage(stage)
+        .status(ProcessingJob.Status.QUEUED)
+        .runAfter(now)
+        .createdAt(now)
+        .updatedAt(now)
+        .build())
+      .toList());
+  }
+
+  /** Stage by stage status of a thesis's processing. */
+  public List<ProcessingJob> status(Long thesisId) {
+    return jobs.findByThesisIdOrderById(thesisId);
+  }
+
+  /**
+   * Makes sure {@code stage} will run (again) for a thesis, e.g. to regenerate
+   * an evicted artifact, and returns its job status. A stage that is queued,
+   * running or FAILED is left as it is; one the thesis never had (submitted
+   * before the stage existed) is added.
+   */
+  public ProcessingJob.Status rerun(Long thesisId, String stage) {
+    Instant now = Instant.now();
+    if (jobs.rerun(thesisId, stage, now, ProcessingJob.Status.DONE, ProcessingJob.Status.QUEUED) > 0) {
+      return ProcessingJob.Status.QUEUED;
+    }
+    var existing = jobs.findByThesisIdAndStage(thesisId, stage);
+    if (existing.isPresent()) {
+      return existing.get().getStatus();
+    }
+    insert(thesisId, stage, now);
+    return ProcessingJob.Status.QUEUED;
+  }
+
+  /**
+   * Queues every stage for theses stored before this pipeline existed. Their
+   * text extraction went to an in-memory executor that dropped what did not
+   * fit and forgot what was queued on restart, which left some of them
+   * PENDING in thesis_full_text for good. Once they have jobs a later start
+   * finds nothing to do.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    if (!enabled) {
+      return;
+    }
+    int queued = 0;
+    Long after = 0L;
+    List<Long> ids;
+    while (!(ids = jobs.findThesesWithoutJobs(after, PageRequest.of(0, 100))).isEmpty()) {
+      Instant now = Instant.now();
+      for (Long thesisId : ids) {
+        stages.keySet().forEach(stage -> insert(thesisId, stage, now));
+      }
+      queued += ids.size();
+      after = ids.get(ids.size() - 1);
+    }
+    if (queued > 0) {
+      log.info("Queued processing for {} thesis(es) stored before the processing pipeline", queued);
+    }
+  }
+
+  private void insert(Long thesisId, String stage, Instant now) {
+    try {
+      jobs.saveAndFlush(ProcessingJob.builder()
+        .thesisId(thesisId)
+        .stage(stage)
+        .status(ProcessingJob.Status.QUEUED)
+        .runAfter(now)
+        .createdAt(now)
+        .updatedAt(now)
+        .build());
+    } catch (DataIntegrityViolationException e) {
+      // a concurrent request or another node added it first
+    }
+  }
+
+  /** Requeues the FAILED stages of a thesis with their attempts reset; returns how many. */
+  public int retryFailed(Long thesisId) {
+    return jobs.retryFailed(thesisId, Instant.now(), ProcessingJob.Status.FAILED, ProcessingJob.Status.QUEUED);
+  }
+
+  /** Also called by each worker as it finishes, so a backlog drains without waiting for the timer. */
+  @Scheduled(fixedDelayString = "${processing.poll-interval:2s}")
+  public void poll() {
+    if (!enabled) {
+      return;
+    }
+    Instant now = Instant.now();
+    int expired = jobs.requeueExpired(now.minus(lease), now, ProcessingJob.Status.RUNNING, ProcessingJob.Status.QUEUED);
+    if (expired > 0) {
+      log.warn("Requeued {} processing job(s) whose worker stopped responding", expired);
+    }
+
+    int free = slots.availablePermits();
+    if (free == 0) {
+      return;
+    }
+    for (Long id : jobs.findRunnable(ProcessingJob.Status.QUEUED, now, PageRequest.of(0, free))) {
+      if (!slots.tryAcquire()) {
+        break;
+      }
+      if (jobs.claim(id, worker, Instant.now(), ProcessingJob.Status.QUEUED, ProcessingJob.Status.RUNNING) == 0) {
+        slots.release(); // another node took it
+        continue;
+      }
+      try {
+        executor.execute(() -> {
+          try {
+            run(id);
+          } finally {
+            slots.release();
+          }
+          poll(); // take the next queued job now rather than at the next tick
+        });
+      } catch (TaskRejectedException e) {
+        slots.release();
+        jobs.release(id, ProcessingJob.Status.QUEUED, now, null, Instant.now());
+      }
+    }
+  }
+
+  void run(Long jobId) {
+    ProcessingJob job = jobs.findById(jobId).orElse(null);
+    if (job == null) {
+      return; // thesis deleted meanwhile
+    }
+    ProcessingStage stage = stages.get(job.getStage());
+    int allowed = stage == null || stage.maxAttempts() <= 0 ? maxAttempts : stage.maxAttempts();
+    try {
+      if (stage == null) {
+        throw new IllegalStateException("No processing stage named " + job.getStage());
+      }
+      if (job.getAttempts() > allowed) {
+        // its earlier attempts never came back (lease expiry); don't go round forever
+        throw new IllegalStateException("Gave up after " + allowed + " attempts");
+      }
+      Thesis thesis = theses.findById(job.getThesisId())
+        .orElseThrow(() -> new IllegalStateException("Thesis " + job.getThesisId() + " not found"));
+      stage.run(thesis);
+      jobs.release(jobId, ProcessingJob.Status.DONE, job.getRunAfter(), null, Instant.now());
+    } catch (Exception e) {
+      String error = e.getMessage() != null ? e.getMessage() : e.toString();
+      Instant now = Instant.now();
+      if (stage != null && job.getAttempts() < allowed) {
+        Instant retryAt = now.plus(retryBackoff.multipliedBy(1L << Math.min(job.getAttempts() - 1, 16)));
+        log.info("Processing stage {} failed for thesis {} (attempt {} of {}), retrying at {}: {}",
+          job.getStage(), job.getThesisId(), job.getAttempts(), allowed, retryAt, error);
+        jobs.release(jobId, ProcessingJob.Status.QUEUED, retryAt, error, now);
+      } else {
+        log.warn("Processing stage {} failed for thesis {}: {}", job.getStage(), job.getThesisId(), error);
+        jobs.release(jobId, ProcessingJob.Status.FAILED, job.getRunAfter(), error, now);
+      }
+    }
+  }
+}
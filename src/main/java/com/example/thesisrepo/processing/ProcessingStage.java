@@ -0,0 +1,22 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.thesis.Thesis;
+
+/**
+ * A piece of post-submission work for a thesis (page count, text extraction, ...).
+ * Every stage bean gets a job per submitted thesis; stages run independently,
+ * in {@code @Order} order when workers are free, and are retried separately.
+ */
+public interface ProcessingStage {
+
+  /** Stored in {@code processing_job.stage}; keep it stable (at most 32 chars). */
+  String name();
+
+  /** Does the work; throwing schedules a retry until the attempts are used up. */
+  void run(Thesis thesis) throws Exception;
+
+  /** Attempts before the job is left FAILED; 0 uses {@code processing.max-attempts}. */
+  default int maxAttempts() {
+    return 0;
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.service.FullTextExtractionService;
+import com.example.thesisrepo.thesis.Thesis;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/** Full text for search; see {@link FullTextExtractionService}. */
+@Component
+@Order(10)
+@RequiredArgsConstructor
+class TextExtractionStage implements ProcessingStage {
+
+  private final FullTextExtractionService extraction;
+
+  @Override
+  public String name() {
+    return "TEXT_EXTRACTION";
+  }
+
+  @Override
+  public void run(Thesis thesis) throws Exception {
+    extraction.extract(thesis.getId(), thesis.getFilePath());
+  }
+}
@@ -4,12 +4,16 @@ import com.example.thesisrepo.user.User;
 import jakarta.persistence.*;
 import lombok.*;
 
-@Entity @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@NamedEntityGraph(name = LecturerProfile.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class LecturerProfile {
+  public static final String WITH_USER = "LecturerProfile.user";
+
   @Id
   private Long userId;
 
-  @OneToOne @MapsId
+  @OneToOne(fetch = FetchType.LAZY) @MapsId
   @JoinColumn(name="user_id")
   private User user;
 
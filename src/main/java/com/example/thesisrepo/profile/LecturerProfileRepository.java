@@ -1,8 +1,16 @@
 package com.example.thesisrepo.profile;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface LecturerProfileRepository extends JpaRepository<LecturerProfile, Long> {
   Optional<LecturerProfile> findByUserId(Long userId);
+
+  // lecturer dropdowns show the account email next to the profile
+  @Override
+  @EntityGraph(LecturerProfile.WITH_USER)
+  List<LecturerProfile> findAll();
 }
@@ -4,12 +4,16 @@ import com.example.thesisrepo.user.User;
 import jakarta.persistence.*;
 import lombok.*;
 
-@Entity @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@NamedEntityGraph(name = StudentProfile.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class StudentProfile {
+  public static final String WITH_USER = "StudentProfile.user";
+
   @Id
   private Long userId;
 
-  @OneToOne @MapsId
+  @OneToOne(fetch = FetchType.LAZY) @MapsId
   @JoinColumn(name="user_id")
   private User user;
 
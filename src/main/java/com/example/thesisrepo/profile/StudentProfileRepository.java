@@ -1,9 +1,19 @@
 package com.example.thesisrepo.profile;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface StudentProfileRepository extends JpaRepository<StudentProfile, Long> {
   Optional<StudentProfile> findByUserId(Long userId);
+
+  @EntityGraph(StudentProfile.WITH_USER)
   Optional<StudentProfile> findByStudentNumber(String studentNumber);
+
+  // admin student list shows the account email next to the profile
+  @Override
+  @EntityGraph(StudentProfile.WITH_USER)
+  List<StudentProfile> findAll();
 }
@@ -0,0 +1,9 @@
+package com.example.thesisrepo.search;
+
+/**
+ * Raised by {@link CatalogVersion} when the catalog was changed by another node
+ * (or concurrently with this one): in-memory views of the published theses
+ * must be rebuilt from the database, since the events that would have kept
+ * them current were raised elsewhere.
+ */
+public record CatalogReloadEvent(long version) {}
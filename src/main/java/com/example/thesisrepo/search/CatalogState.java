@@ -0,0 +1,20 @@
+package com.example.thesisrepo.search;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The shared catalog version (a single row), so every node serving the public
+ * catalog agrees on it; see {@link CatalogVersion}.
+ */
+@Entity
+@Table(name = "catalog_state")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class CatalogState {
+  @Id
+  private Integer id;
+
+  @Column(nullable = false)
+  private long version;
+}
@@ -0,0 +1,21 @@
+package com.example.thesisrepo.search;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface CatalogStateRepository extends JpaRepository<CatalogState, Integer> {
+
+  @Query("SELECT c.version FROM CatalogState c WHERE c.id = :id")
+  Optional<Long> findVersion(@Param("id") Integer id);
+
+  /** Atomic in the database, so bumps from several nodes are all counted. Returns rows updated. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE CatalogState c SET c.version = c.version + 1 WHERE c.id = :id")
+  int increment(@Param("id") Integer id);
+}
@@ -0,0 +1,124 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisTextExtractedEvent;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the public catalog. Anything derived from the set of
+ * published theses (cached results, ETags, ...) can be keyed by it and is
+ * implicitly invalidated when an admin publishes a thesis or takes one out of
+ * the catalogue again (or when extracted text arrives, since that changes
+ * full-text results).
+ *
+ * Each published thesis also remembers the catalog version at which it was
+ * (last) published, so its detail can be versioned on its own; theses that
+ * have not changed since startup (or the last reload) share that version.
+ *
+ * The version lives in the {@link CatalogState} row, so all nodes hand out the
+ * same ETags. Each node bumps it for its own changes and polls it every
+ * {@code public-cache.sync-interval}; when it moved without this node
+ * (another node published, or two bumps raced) a {@link CatalogReloadEvent}
+ * has the in-memory views rebuilt before the new version is taken on. The row
+ * is seeded from the clock, so versions from before a database reset are not
+ * reused.
+ */
+@Slf4j
+@Component
+public class CatalogVersion {
+
+  /** Order for in-memory index listeners, so they are current before the version moves. */
+  public static final int INDEX_ORDER = 0;
+
+  private static final int ROW = 1;
+
+  private final CatalogStateRepository states;
+  private final ApplicationEventPublisher events;
+
+  @Value("${public-cache.sync:true}")
+  private boolean sync;
+
+  private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+  private volatile long base = version.get();
+  private volatile boolean ready;
+  private final Map<Long, Long> thesisVersions = new ConcurrentHashMap<>();
+
+  public CatalogVersion(CatalogStateRepository states, ApplicationEventPublisher events) {
+    this.states = states;
+    this.events = events;
+  }
+
+  public long current() {
+    return version.get();
+  }
+
+  /** Version of one thesis's public data; changes only when that thesis is published or withdrawn. */
+  public long ofThesis(long thesisId) {
+    return thesisVersions.getOrDefault(thesisId, base);
+  }
+
+  // before the in-memory views are built, so they start from this version
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public synchronized void init() {
+    long stored = states.findVersion(ROW).orElseGet(() -> {
+      try {
+        states.saveAndFlush(new CatalogState(ROW, System.currentTimeMillis()));
+      } catch (DataIntegrityViolationException e) {
+        // another node created it first
+      }
+      return states.findVersion(ROW).orElseThrow();
+    });
+    version.set(stored);
+    base = stored;
+    ready = true;
+  }
+
+  @EventListener({ ThesisPublishedEvent.class, ThesisWithdrawnEvent.class, ThesisTextExtractedEvent.class })
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public synchronized void bump(Object event) {
+    long previous = version.get();
+    long v = ready && states.increment(ROW) > 0 ? states.findVersion(ROW).orElse(previous + 1) : previous + 1;
+    if (v != previous + 1) {
+      reload(v); // someone else changed the catalog since this node last looked
+      return;
+    }
+    version.set(v);
+    if (event instanceof ThesisPublishedEvent published) {
+      thesisVersions.put(published.thesis().getId(), v);
+    } else if (event instanceof ThesisWithdrawnEvent withdrawn) {
+      thesisVersions.put(withdrawn.thesis().getId(), v);
+    }
+  }
+
+  /** Picks up changes made on other nodes. */
+  @Scheduled(fixedDelayString = "${public-cache.sync-interval:5s}")
+  public synchronized void sync() {
+    if (!sync || !ready) {
+      return;
+    }
+    states.findVersion(ROW).filter(stored -> stored > version.get()).ifPresent(this::reload);
+  }
+
+  private void reload(long v) {
+    log.info("Catalog changed elsewhere (version {} -> {}), reloading", version.get(), v);
+    events.publishEvent(new CatalogReloadEvent(v));
+    thesisVersions.clear();
+    base = v;
+    version.set(v);
+  }
+}
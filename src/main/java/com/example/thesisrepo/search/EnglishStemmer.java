@@ -0,0 +1,243 @@
+package com.example.thesisrepo.search;
+
+/**
+ * Porter (1980) stemmer for English, working on a caller-owned char buffer.
+ * Follows the reference implementation step for step.
+ */
+final class EnglishStemmer implements Stemmer {
+
+  private char[] b;
+  private int k; // offset of the last character of the current word
+  private int j; // end of the stem before the suffix matched by ends()
+
+  @Override
+  public int stem(char[] word, int length) {
+    b = word;
+    k = length - 1;
+    if (k > 1) {
+      step1ab();
+      step1c();
+      step2();
+      step3();
+      step4();
+      step5();
+    }
+    b = null;
+    return k + 1;
+  }
+
+  private boolean cons(int i) {
+    switch (b[i]) {
+      case 'a', 'e', 'i', 'o', 'u':
+        return false;
+      case 'y':
+        return i == 0 || !cons(i - 1);
+      default:
+        return true;
+    }
+  }
+
+  // number of vowel-consonant sequences in b[0..j]
+  private int m() {
+    int n = 0;
+    int i = 0;
+    while (true) {
+      if (i > j) return n;
+      if (!cons(i)) break;
+      i++;
+    }
+    i++;
+    while (true) {
+      while (true) {
+        if (i > j) return n;
+        if (cons(i)) break;
+        i++;
+      }
+      i++;
+      n++;
+      while (true) {
+        if (i > j) return n;
+        if (!cons(i)) break;
+        i++;
+      }
+      i++;
+    }
+  }
+
+  private boolean vowelInStem() {
+    for (int i = 0; i <= j; i++) {
+      if (!cons(i)) return true;
+    }
+    return false;
+  }
+
+  private boolean doubleCons(int i) {
+    return i >= 1 && b[i] == b[i - 1] && cons(i);
+  }
+
+  // consonant-vowel-consonant ending at i, last one not w, x or y ("hop", not "snow")
+  private boolean cvc(int i) {
+    if (i < 2 || !cons(i) || cons(i - 1) || !cons(i - 2)) return false;
+    char c = b[i];
+    return c != 'w' && c != 'x' && c != 'y';
+  }
+
+  private boolean ends(String s) {
+    int l = s.length();
+    int o = k - l + 1;
+    if (o < 0) return false;
+    for (int i = 0; i < l; i++) {
+      if (b[o + i] != s.charAt(i)) return false;
+    }
+    j = k - l;
+    return true;
+  }
+
+  // replaces b[j+1..k] with s; callers only ever shrink or keep the word length
+  private void setTo(String s) {
+    int l = s.length();
+    int o = j + 1;
+    for (int i = 0; i < l; i++) {
+      b[o + i] = s.charAt(i);
+    }
+    k = j + l;
+  }
+
+  private void r(String s) {
+    if (m() > 0) setTo(s);
+  }
+
+  // plurals and -ed / -ing
+  private void step1ab() {
+    if (b[k] == 's') {
+      if (ends("sses")) {
+        k -= 2;
+      } else if (ends("ies")) {
+        setTo("i");
+      } else if (b[k - 1] != 's') {
+        k--;
+      }
+    }
+    if (ends("eed")) {
+      if (m() > 0) k--;
+    } else if ((ends("ed") || ends("ing")) && vowelInStem()) {
+      k = j;
+      if (ends("at")) {
+        setTo("ate");
+      } else if (ends("bl")) {
+        setTo("ble");
+      } else if (ends("iz")) {
+        setTo("ize");
+      } else if (doubleCons(k)) {
+        k--;
+        char c = b[k];
+        if (c == 'l' || c == 's' || c == 'z') k++;
+      } else if (m() == 1 && cvc(k)) {
+        setTo("e");
+      }
+    }
+  }
+
+  // terminal y → i when there is another vowel in the stem
+  private void step1c() {
+    if (ends("y") && vowelInStem()) b[k] = 'i';
+  }
+
+  // double suffixes → single ones
+  private void step2() {
+    if (k == 0) return;
+    switch (b[k - 1]) {
+      case 'a' -> {
+        if (ends("ational")) r("ate");
+        else if (ends("tional")) r("tion");
+      }
+      case 'c' -> {
+        if (ends("enci")) r("ence");
+        else if (ends("anci")) r("ance");
+      }
+      case 'e' -> {
+        if (ends("izer")) r("ize");
+      }
+      case 'l' -> {
+        if (ends("bli")) r("ble");
+        else if (ends("alli")) r("al");
+        else if (ends("entli")) r("ent");
+        else if (ends("eli")) r("e");
+        else if (ends("ousli")) r("ous");
+      }
+      case 'o' -> {
+        if (ends("ization")) r("ize");
+        else if (ends("ation")) r("ate");
+        else if (ends("ator")) r("ate");
+      }
+      case 's' -> {
+        if (ends("alism")) r("al");
+        else if (ends("iveness")) r("ive");
+        else if (ends("fulness")) r("ful");
+        else if (ends("ousness")) r("ous");
+      }
+      case 't' -> {
+        if (ends("aliti")) r("al");
+        else if (ends("iviti")) r("ive");
+        else if (ends("biliti")) r("ble");
+      }
+      case 'g' -> {
+        if (ends("logi")) r("log");
+      }
+      default -> { }
+    }
+  }
+
+  // -ic-, -full, -ness etc.
+  private void step3() {
+    switch (b[k]) {
+      case 'e' -> {
+        if (ends("icate")) r("ic");
+        else if (ends("ative")) r("");
+        else if (ends("alize")) r("al");
+      }
+      case 'i' -> {
+        if (ends("iciti")) r("ic");
+      }
+      case 'l' -> {
+        if (ends("ical")) r("ic");
+        else if (ends("ful")) r("");
+      }
+      case 's' -> {
+        if (ends("ness")) r("");
+      }
+      default -> { }
+    }
+  }
+
+  // -ant, -ence etc. in context <c>vcvc<v>
+  private void step4() {
+    if (k == 0) return;
+    boolean matched = switch (b[k - 1]) {
+      case 'a' -> ends("al");
+      case 'c' -> ends("ance") || ends("ence");
+      case 'e' -> ends("er");
+      case 'i' -> ends("ic");
+      case 'l' -> ends("able") || ends("ible");
+      case 'n' -> ends("ant") || ends("ement") || ends("ment") || ends("ent");
+      case 'o' -> (ends("ion") && j >= 0 && (b[j] == 's' || b[j] == 't')) || ends("ou");
+      case 's' -> ends("ism");
+      case 't' -> ends("ate") || ends("iti");
+      case 'u' -> ends("ous");
+      case 'v' -> ends("ive");
+      case 'z' -> ends("ize");
+      default -> false;
+    };
+    if (matched && m() > 1) k = j;
+  }
+
+  // final -e and -ll
+  private void step5() {
+    j = k;
+    if (b[k] == 'e') {
+      int a = m();
+      if (a > 1 || a == 1 && !cvc(k - 1)) k--;
+    }
+    if (b[k] == 'l' && doubleCons(k) && m() > 1) k--;
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.thesisrepo.search;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One bitmap of document ordinals per distinct value of a facet.
+ * Values are compared case-insensitively; the first spelling seen is kept for display.
+ * Not thread-safe on its own – guarded by the owning index's lock.
+ */
+final class FacetBitmaps {
+  private final Map<String, BitSet> byValue = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+  void add(String value, int doc) {
+    if (value == null || value.isBlank()) return;
+    byValue.computeIfAbsent(value, k -> new BitSet()).set(doc);
+  }
+
+  void clear() {
+    byValue.clear();
+  }
+
+  /** Moves every doc to {@code remap[doc]}; docs mapped to -1 are dropped, and so are values left empty. */
+  void remap(int[] remap) {
+    Iterator<Map.Entry<String, BitSet>> it = byValue.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, BitSet> e = it.next();
+      BitSet docs = new BitSet();
+      BitSet old = e.getValue();
+      for (int doc = old.nextSetBit(0); doc >= 0; doc = old.nextSetBit(doc + 1)) {
+        if (remap[doc] >= 0) docs.set(remap[doc]);
+      }
+      if (docs.isEmpty()) {
+        it.remove();
+      } else {
+        e.setValue(docs);
+      }
+    }
+  }
+
+  /** Bitmap for the selected value, an empty one if unknown, or null when nothing is selected. */
+  BitSet select(String value) {
+    if (value == null || value.isBlank()) return null;
+    BitSet docs = byValue.get(value);
+    return docs != null ? docs : new BitSet();
+  }
+
+  /** Count of {@code mask} docs per value; values with no hits are left out. */
+  Map<String, Integer> counts(BitSet mask) {
+    Map<String, Integer> out = new TreeMap<>();
+    for (Map.Entry<String, BitSet> e : byValue.entrySet()) {
+      BitSet hits = (BitSet) e.getValue().clone();
+      hits.and(mask);
+      int n = hits.cardinality();
+      if (n > 0) {
+        out.put(e.getKey(), n);
+      }
+    }
+    return out;
+  }
+}
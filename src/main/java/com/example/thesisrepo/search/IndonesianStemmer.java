@@ -0,0 +1,189 @@
+package com.example.thesisrepo.search;
+
+/**
+ * Rule-based Indonesian stemmer after Tala (2003): strips particles
+ * (-kah/-lah/-pun), possessive pronouns (-ku/-mu/-nya), first- and
+ * second-order prefixes (meN-/peN-/di-/ter-/ke-, ber-/per-/pe-) and the
+ * derivational suffixes -kan/-an/-i, respecting the usual prefix/suffix
+ * exclusions ("ke-…-i" is never both stripped).
+ *
+ * It is not dictionary-backed, so some stems are not real roots
+ * ("pengembangan" → "embang"); what matters is that affix variants of the
+ * same word collapse to the same stem. Words of two syllables or fewer are
+ * left alone.
+ */
+final class IndonesianStemmer implements Stemmer {
+
+  private static final int REMOVED_KE = 1;
+  private static final int REMOVED_PENG = 2;
+  private static final int REMOVED_DI = 4;
+  private static final int REMOVED_MENG = 8;
+  private static final int REMOVED_TER = 16;
+  private static final int REMOVED_BER = 32;
+  private static final int REMOVED_PE = 64;
+
+  private int flags;
+  private int syllables;
+
+  @Override
+  public int stem(char[] word, int length) {
+    flags = 0;
+    syllables = 0;
+    for (int i = 0; i < length; i++) {
+      if (isVowel(word[i])) syllables++;
+    }
+
+    if (syllables > 2) length = removeParticle(word, length);
+    if (syllables > 2) length = removePossessive(word, length);
+
+    int before = length;
+    if (syllables > 2) length = removeFirstOrderPrefix(word, length);
+    if (before != length) {
+      before = length;
+      if (syllables > 2) length = removeSuffix(word, length);
+      if (before != length && syllables > 2) length = removeSecondOrderPrefix(word, length);
+    } else {
+      if (syllables > 2) length = removeSecondOrderPrefix(word, length);
+      if (syllables > 2) length = removeSuffix(word, length);
+    }
+    return length;
+  }
+
+  private int removeParticle(char[] w, int len) {
+    if (endsWith(w, len, "kah") || endsWith(w, len, "lah") || endsWith(w, len, "pun")) {
+      syllables--;
+      return len - 3;
+    }
+    return len;
+  }
+
+  private int removePossessive(char[] w, int len) {
+    if (endsWith(w, len, "ku") || endsWith(w, len, "mu")) {
+      syllables--;
+      return len - 2;
+    }
+    if (endsWith(w, len, "nya")) {
+      syllables--;
+      return len - 3;
+    }
+    return len;
+  }
+
+  private int removeFirstOrderPrefix(char[] w, int len) {
+    if (startsWith(w, len, "meng")) {
+      return strip(w, len, 4, REMOVED_MENG);
+    }
+    if (startsWith(w, len, "meny") && len > 4 && isVowel(w[4])) {
+      w[3] = 's'; // menyapu → sapu
+      return strip(w, len, 3, REMOVED_MENG);
+    }
+    if (startsWith(w, len, "men")) {
+      return nasal(w, len, 't', REMOVED_MENG); // menulis → tulis
+    }
+    if (startsWith(w, len, "mem")) {
+      return nasal(w, len, 'p', REMOVED_MENG); // memukul → pukul
+    }
+    if (startsWith(w, len, "me")) {
+      return strip(w, len, 2, REMOVED_MENG);
+    }
+    if (startsWith(w, len, "peng")) {
+      return strip(w, len, 4, REMOVED_PENG);
+    }
+    if (startsWith(w, len, "peny") && len > 4 && isVowel(w[4])) {
+      w[3] = 's';
+      return strip(w, len, 3, REMOVED_PENG);
+    }
+    if (startsWith(w, len, "pen")) {
+      return nasal(w, len, 't', REMOVED_PENG); // penelitian → teliti
+    }
+    if (startsWith(w, len, "pem")) {
+      return nasal(w, len, 'p', REMOVED_PENG);
+    }
+    if (startsWith(w, len, "di")) {
+      return strip(w, len, 2, REMOVED_DI);
+    }
+    if (startsWith(w, len, "ter")) {
+      return strip(w, len, 3, REMOVED_TER);
+    }
+    if (startsWith(w, len, "ke")) {
+      return strip(w, len, 2, REMOVED_KE);
+    }
+    return len;
+  }
+
+  private int removeSecondOrderPrefix(char[] w, int len) {
+    if (startsWith(w, len, "ber")) {
+      return strip(w, len, 3, REMOVED_BER);
+    }
+    if (len == 7 && startsWith(w, len, "belajar")) {
+      return strip(w, len, 3, REMOVED_BER);
+    }
+    if (startsWith(w, len, "be") && len > 4 && !isVowel(w[2]) && w[3] == 'e' && w[4] == 'r') {
+      return strip(w, len, 2, REMOVED_BER); // bekerja → kerja
+    }
+    if (startsWith(w, len, "per")) {
+      return strip(w, len, 3, REMOVED_PE);
+    }
+    if (len == 7 && startsWith(w, len, "pelajar")) {
+      return strip(w, len, 3, REMOVED_PE);
+    }
+    if (startsWith(w, len, "pe")) {
+      return strip(w, len, 2, REMOVED_PE);
+    }
+    return len;
+  }
+
+  private int removeSuffix(char[] w, int len) {
+    if (endsWith(w, len, "kan") && (flags & (REMOVED_KE | REMOVED_PENG | REMOVED_PE)) == 0) {
+      syllables--;
+      return len - 3;
+    }
+    if (endsWith(w, len, "an") && (flags & (REMOVED_DI | REMOVED_MENG | REMOVED_TER)) == 0) {
+      syllables--;
+      return len - 2;
+    }
+    if (endsWith(w, len, "i") && !endsWith(w, len, "si")
+        && (flags & (REMOVED_BER | REMOVED_KE | REMOVED_PENG)) == 0) {
+      syllables--;
+      return len - 1;
+    }
+    return len;
+  }
+
+  // meN-/peN- before a vowel replaced the root's first consonant
+  private int nasal(char[] w, int len, char restored, int flag) {
+    if (len > 3 && isVowel(w[3])) {
+      w[2] = restored;
+      return strip(w, len, 2, flag);
+    }
+    return strip(w, len, 3, flag);
+  }
+
+  private int strip(char[] w, int len, int n, int flag) {
+    flags |= flag;
+    syllables--;
+    System.arraycopy(w, n, w, 0, len - n);
+    return len - n;
+  }
+
+  private static boolean isVowel(char c) {
+    return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+  }
+
+  private static boolean startsWith(char[] w, int len, String prefix) {
+    if (prefix.length() > len) return false;
+    for (int i = 0; i < prefix.length(); i++) {
+      if (w[i] != prefix.charAt(i)) return false;
+    }
+    return true;
+  }
+
+  private static boolean endsWith(char[] w, int len, String suffix) {
+    int offset = len - suffix.length();
+    if (offset < 0) return false;
+    for (int i = 0; i < suffix.length(); i++) {
+      if (w[offset + i] != suffix.charAt(i)) return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.thesisrepo.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable, sorted list of document ordinals for a single term.
+ * Ordinals are handed out in increasing order, so appends keep it sorted.
+ */
+final class PostingList {
+  private int[] docs = new int[4];
+  private int size;
+
+  void add(int doc) {
+    if (size > 0 && docs[size - 1] == doc) return; // term repeated in the same doc
+    if (size == docs.length) {
+      docs = Arrays.copyOf(docs, size * 2);
+    }
+    docs[size++] = doc;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int get(int i) {
+    return docs[i];
+  }
+
+  boolean contains(int doc) {
+    return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.PublicThesisView;
+
+import java.util.List;
+
+/**
+ * One keyset page of published theses, newest first.
+ * {@code hasMore} tells the caller whether to hand out a next-page cursor.
+ */
+public record PublishedPage(List<PublicThesisView> items, boolean hasMore) {
+
+  /** Build a page from a query that fetched {@code limit + 1} rows. */
+  public static PublishedPage of(List<PublicThesisView> rows, int limit) {
+    if (rows.size() > limit) {
+      return new PublishedPage(rows.subList(0, limit), true);
+    }
+    return new PublishedPage(rows, false);
+  }
+
+  public PublicThesisView last() {
+    return items.isEmpty() ? null : items.get(items.size() - 1);
+  }
+}
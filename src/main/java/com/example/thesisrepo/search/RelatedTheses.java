@@ -0,0 +1,303 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * "Related theses" for the detail page: the top-k published theses by cosine
+ * similarity of their sparse TF-IDF vectors over abstract and keywords.
+ *
+ * Neighbour lists are computed ahead of time – on startup by a fork-join job
+ * that scores every thesis against an inverted index of the vectors, and then
+ * incrementally for each newly published thesis – so a lookup is a single map
+ * get. Incremental updates weight new vectors with the current document
+ * frequencies but leave existing vectors alone; the next full rebuild
+ * re-weights everything.
+ *
+ * A withdrawn thesis loses its own list and drops out of everyone else's
+ * (those lists are scored again without it). Its vector stays in the model,
+ * skipped by scoring, until the next full rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+public class RelatedTheses {
+
+  /** Below this many documents a fork-join leaf scores its range directly. */
+  private static final int LEAF_SIZE = 64;
+
+  public record Neighbour(long thesisId, float score) { }
+
+  private final ThesisRepository theses;
+
+  @Value("${search.related.k:10}")
+  private int k;
+
+  // thesis id → best neighbours, most similar first; values are replaced, never mutated
+  private final Map<Long, List<Neighbour>> neighbours = new ConcurrentHashMap<>();
+
+  // model state, guarded by this
+  private final Map<String, Integer> termIds = new HashMap<>();
+  private int[] documentFrequency = new int[256];
+  private final List<WeightedPostings> postings = new ArrayList<>();
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final List<SparseVector> vectors = new ArrayList<>();
+  private final BitSet withdrawn = new BitSet();
+  private long[] ids = new long[64];
+
+  @EventListener({ ApplicationReadyEvent.class, CatalogReloadEvent.class })
+  public synchronized void rebuild() {
+    termIds.clear();
+    postings.clear();
+    ordinals.clear();
+    vectors.clear();
+    withdrawn.clear();
+    documentFrequency = new int[256];
+
+    List<Map<Integer, Integer>> termCounts = new ArrayList<>();
+    List<Long> docIds = new ArrayList<>();
+    for (Thesis t : theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED)) {
+      Map<Integer, Integer> tf = termCounts(t);
+      for (int term : tf.keySet()) {
+        documentFrequency[term]++;
+      }
+      termCounts.add(tf);
+      docIds.add(t.getId());
+    }
+
+    ids = new long[Math.max(64, docIds.size())];
+    for (int doc = 0; doc < docIds.size(); doc++) {
+      ids[doc] = docIds.get(doc);
+      ordinals.put(docIds.get(doc), doc);
+      SparseVector v = weigh(termCounts.get(doc), docIds.size());
+      vectors.add(v);
+      addPostings(doc, v);
+    }
+
+    Neighbour[][] lists = new Neighbour[vectors.size()][];
+    ForkJoinPool.commonPool().invoke(new NeighbourTask(this, lists, 0, lists.length));
+    Map<Long, List<Neighbour>> fresh = new HashMap<>();
+    for (int doc = 0; doc < lists.length; doc++) {
+      fresh.put(ids[doc], List.of(lists[doc]));
+    }
+    neighbours.keySet().retainAll(fresh.keySet());
+    neighbours.putAll(fresh);
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public synchronized void onPublished(ThesisPublishedEvent event) {
+    Thesis t = event.thesis();
+    if (t.getCurrentStatus() != Thesis.ThesisStatus.PUBLISHED || ordinals.containsKey(t.getId())) {
+      return;
+    }
+
+    Map<Integer, Integer> tf = termCounts(t);
+    for (int term : tf.keySet()) {
+      documentFrequency[term]++;
+    }
+    int doc = vectors.size();
+    if (doc == ids.length) {
+      ids = Arrays.copyOf(ids, doc * 2);
+    }
+    ids[doc] = t.getId();
+    ordinals.put(t.getId(), doc);
+    SparseVector v = weigh(tf, doc + 1);
+    vectors.add(v);
+    addPostings(doc, v);
+
+    float[] scores = new float[vectors.size()];
+    int[] touched = score(v, doc, scores, new int[vectors.size()]);
+    neighbours.put(t.getId(), List.of(topK(scores, touched)));
+
+    // the new thesis may displace the weakest neighbour of the theses it resembles
+    for (int other : touched) {
+      float s = scores[other];
+      List<Neighbour> current = neighbours.getOrDefault(ids[other], List.of());
+      if (current.size() < k || s > current.get(current.size() - 1).score()) {
+        List<Neighbour> updated = new ArrayList<>(current);
+        updated.add(new Neighbour(t.getId(), s));
+        updated.sort(Comparator.comparingDouble((Neighbour n) -> -n.score()));
+        if (updated.size() > k) {
+          updated.remove(updated.size() - 1);
+        }
+        neighbours.put(ids[other], List.copyOf(updated));
+      }
+    }
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public synchronized void onWithdrawn(ThesisWithdrawnEvent event) {
+    long id = event.thesis().getId();
+    neighbours.remove(id);
+    Integer doc = ordinals.remove(id);
+    if (doc == null) {
+      return;
+    }
+    withdrawn.set(doc); // a later publish gets a fresh ordinal
+
+    // only theses sharing a term with it can list it; score those again without it
+    int n = vectors.size();
+    int[] buffer = new int[n];
+    for (int other : score(vectors.get(doc), doc, new float[n], buffer)) {
+      List<Neighbour> current = neighbours.get(ids[other]);
+      if (current != null && current.stream().anyMatch(x -> x.thesisId() == id)) {
+        float[] scores = new float[n];
+        neighbours.put(ids[other], List.of(topK(scores, score(vectors.get(other), other, scores, buffer))));
+      }
+    }
+  }
+
+  /** Precomputed neighbours of a published thesis, or null if it is not in the catalogue. */
+  public List<Neighbour> related(Long thesisId) {
+    return neighbours.get(thesisId);
+  }
+
+  // caller holds the monitor; term id → raw count over abstract and keywords
+  private Map<Integer, Integer> termCounts(Thesis t) {
+    Map<Integer, Integer> tf = new HashMap<>();
+    TextAnalyzer.Language language = TextAnalyzer.detect(t.getTitle(), t.getAbstractText(), t.getKeywords());
+    for (String field : new String[] { t.getAbstractText(), t.getKeywords() }) {
+      TextAnalyzer.analyze(field, language, term -> {
+        Integer id = termIds.get(term);
+        if (id == null) {
+          id = termIds.size();
+          termIds.put(term, id);
+          postings.add(new WeightedPostings());
+          if (id == documentFrequency.length) {
+            documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+          }
+        }
+        tf.merge(id, 1, Integer::sum);
+      });
+    }
+    return tf;
+  }
+
+  // caller holds the monitor; sublinear tf × smoothed idf, L2-normalized
+  private SparseVector weigh(Map<Integer, Integer> tf, int documents) {
+    int[] terms = tf.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    float[] weights = new float[terms.length];
+    double norm = 0;
+    for (int i = 0; i < terms.length; i++) {
+      double idf = Math.log((1.0 + documents) / (1.0 + documentFrequency[terms[i]])) + 1.0;
+      double w = (1.0 + Math.log(tf.get(terms[i]))) * idf;
+      weights[i] = (float) w;
+      norm += w * w;
+    }
+    if (norm > 0) {
+      float inv = (float) (1.0 / Math.sqrt(norm));
+      for (int i = 0; i < weights.length; i++) {
+        weights[i] *= inv;
+      }
+    }
+    return new SparseVector(terms, weights);
+  }
+
+  private void addPostings(int doc, SparseVector v) {
+    for (int i = 0; i < v.terms.length; i++) {
+      postings.get(v.terms[i]).add(doc, v.weights[i]);
+    }
+  }
+
+  /**
+   * Dot products of {@code v} with every other live document sharing a term,
+   * accumulated into {@code scores}; returns the ordinals that were touched.
+   * Only reads the model, so fork-join workers may call it concurrently.
+   */
+  private int[] score(SparseVector v, int self, float[] scores, int[] touchedBuffer) {
+    int touched = 0;
+    for (int i = 0; i < v.terms.length; i++) {
+      WeightedPostings p = postings.get(v.terms[i]);
+      float w = v.weights[i];
+      for (int j = 0; j < p.size; j++) {
+        int other = p.docs[j];
+        if (other == self || withdrawn.get(other)) continue;
+        if (scores[other] == 0f) {
+          touchedBuffer[touched++] = other;
+        }
+        scores[other] += w * p.weights[j];
+      }
+    }
+    return Arrays.copyOf(touchedBuffer, touched);
+  }
+
+  private Neighbour[] topK(float[] scores, int[] touched) {
+    PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(doc -> scores[doc]));
+    for (int doc : touched) {
+      heap.add(doc);
+      if (heap.size() > k) heap.poll();
+    }
+    Neighbour[] out = new Neighbour[heap.size()];
+    for (int i = out.length - 1; i >= 0; i--) {
+      int doc = heap.poll();
+      out[i] = new Neighbour(ids[doc], scores[doc]);
+    }
+    return out;
+  }
+
+  /** Splits the document range until it is small enough to score in one go. */
+  private static final class NeighbourTask extends RecursiveAction {
+    private final RelatedTheses model;
+    private final Neighbour[][] out;
+    private final int from;
+    private final int to;
+
+    NeighbourTask(RelatedTheses model, Neighbour[][] out, int from, int to) {
+      this.model = model;
+      this.out = out;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= LEAF_SIZE) {
+        int n = model.vectors.size();
+        float[] scores = new float[n];
+        int[] touchedBuffer = new int[n];
+        for (int doc = from; doc < to; doc++) {
+          int[] touched = model.score(model.vectors.get(doc), doc, scores, touchedBuffer);
+          out[doc] = model.topK(scores, touched);
+          for (int other : touched) {
+            scores[other] = 0f;
+          }
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new NeighbourTask(model, out, from, mid), new NeighbourTask(model, out, mid, to));
+    }
+  }
+
+  private record SparseVector(int[] terms, float[] weights) { }
+
+  /** Growable (doc, weight) pairs for one term. */
+  private static final class WeightedPostings {
+    int[] docs = new int[4];
+    float[] weights = new float[4];
+    int size;
+
+    void add(int doc, float weight) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      docs[size] = doc;
+      weights[size++] = weight;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.example.thesisrepo.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache for public catalog responses, keyed by the caller's
+ * normalized query parameters. The whole cache is dropped as soon as the
+ * {@link CatalogVersion} moves, so a publish is visible on the next request.
+ *
+ * Hit, miss and eviction counts are published as search.cache.* meters.
+ */
+@Component
+public class SearchResultCache {
+
+  private final CatalogVersion catalogVersion;
+  private final int maxEntries;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private final Map<String, Object> entries;
+  private long entriesVersion;
+
+  public SearchResultCache(CatalogVersion catalogVersion,
+                           MeterRegistry registry,
+                           @Value("${search.cache.max-entries:500}") int maxEntries) {
+    this.catalogVersion = catalogVersion;
+    this.maxEntries = maxEntries;
+    this.entriesVersion = catalogVersion.current();
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+        if (size() > SearchResultCache.this.maxEntries) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+
+    FunctionCounter.builder("search.cache.hits", hits, AtomicLong::get).register(registry);
+    FunctionCounter.builder("search.cache.misses", misses, AtomicLong::get).register(registry);
+    FunctionCounter.builder("search.cache.evictions", evictions, AtomicLong::get).register(registry);
+    Gauge.builder("search.cache.size", this, SearchResultCache::size).register(registry);
+  }
+
+  /**
+   * Cached value for {@code key}, or the loader's result (which is then cached).
+   * The loader runs outside the lock; concurrent misses may both load.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String key, Supplier<T> loader) {
+    long version = catalogVersion.current();
+    synchronized (entries) {
+      dropIfStale(version);
+      Object cached = entries.get(key);
+      if (cached != null) {
+        hits.incrementAndGet();
+        return (T) cached;
+      }
+    }
+
+    misses.incrementAndGet();
+    T value = loader.get();
+    synchronized (entries) {
+      dropIfStale(version);
+      // don't store a value computed against a catalog that has since changed
+      if (value != null && version == entriesVersion) {
+        entries.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  private double size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  // caller holds the lock
+  private void dropIfStale(long version) {
+    if (version > entriesVersion) {
+      entries.clear();
+      entriesVersion = version;
+    }
+  }
+}
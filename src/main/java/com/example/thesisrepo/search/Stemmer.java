@@ -0,0 +1,17 @@
+package com.example.thesisrepo.search;
+
+/**
+ * Reduces a lower-case word to its stem in place.
+ *
+ * Implementations keep per-call state in fields and are therefore not
+ * thread-safe; {@link TextAnalyzer} holds one instance per thread.
+ */
+interface Stemmer {
+
+  /**
+   * Stems {@code word[0, length)} in place.
+   *
+   * @return the length of the stem; characters beyond it are garbage
+   */
+  int stem(char[] word, int length);
+}
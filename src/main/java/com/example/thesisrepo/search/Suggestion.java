@@ -0,0 +1,7 @@
+package com.example.thesisrepo.search;
+
+/**
+ * A typeahead completion. {@code type} is one of title, keyword, author, supervisor;
+ * {@code weight} is how many published theses carry it.
+ */
+public record Suggestion(String text, String type, int weight) {}
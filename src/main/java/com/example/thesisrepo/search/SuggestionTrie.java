@@ -0,0 +1,97 @@
+package com.example.thesisrepo.search;
+
+import java.util.*;
+
+/**
+ * Immutable prefix tree for typeahead. Every node stores the ids of its best
+ * completions up front, so a lookup is a walk down the prefix plus a copy of
+ * at most {@code limit} entries – no subtree traversal at query time.
+ *
+ * Children are kept in parallel sorted arrays rather than maps to keep the
+ * per-node footprint small.
+ */
+final class SuggestionTrie {
+
+  /** Keys are cut at this length; longer prefixes are answered from the deepest node. */
+  static final int MAX_KEY_LENGTH = 24;
+
+  private static final class Node {
+    char[] labels = new char[0];
+    Node[] children = new Node[0];
+    int[] top = new int[0];
+  }
+
+  private final Suggestion[] suggestions;
+  private final Node root;
+
+  private SuggestionTrie(Suggestion[] suggestions, Node root) {
+    this.suggestions = suggestions;
+    this.root = root;
+  }
+
+  static SuggestionTrie empty() {
+    return new SuggestionTrie(new Suggestion[0], new Node());
+  }
+
+  /**
+   * @param keys       per suggestion, the normalized keys it should be found under
+   * @param maxPerNode how many completions each node keeps
+   */
+  static SuggestionTrie build(List<Suggestion> entries, List<List<String>> keys, int maxPerNode) {
+    Suggestion[] all = entries.toArray(new Suggestion[0]);
+    Comparator<Integer> rank = Comparator
+      .comparingInt((Integer i) -> -all[i].weight())
+      .thenComparing(i -> all[i].text());
+
+    BuildNode root = new BuildNode();
+    for (int i = 0; i < all.length; i++) {
+      for (String key : keys.get(i)) {
+        BuildNode n = root;
+        n.hits.add(i);
+        int len = Math.min(key.length(), MAX_KEY_LENGTH);
+        for (int c = 0; c < len; c++) {
+          n = n.children.computeIfAbsent(key.charAt(c), k -> new BuildNode());
+          n.hits.add(i);
+        }
+      }
+    }
+    return new SuggestionTrie(all, root.freeze(rank, maxPerNode));
+  }
+
+  List<Suggestion> complete(String key, int limit) {
+    Node n = root;
+    int len = Math.min(key.length(), MAX_KEY_LENGTH);
+    for (int c = 0; c < len && n != null; c++) {
+      int at = Arrays.binarySearch(n.labels, key.charAt(c));
+      n = at >= 0 ? n.children[at] : null;
+    }
+    if (n == null) {
+      return List.of();
+    }
+    int count = Math.min(limit, n.top.length);
+    List<Suggestion> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      out.add(suggestions[n.top[i]]);
+    }
+    return out;
+  }
+
+  private static final class BuildNode {
+    final TreeMap<Character, BuildNode> children = new TreeMap<>();
+    final Set<Integer> hits = new HashSet<>();
+
+    Node freeze(Comparator<Integer> rank, int maxPerNode) {
+      Node n = new Node();
+      n.top = hits.stream().sorted(rank).limit(maxPerNode).mapToInt(Integer::intValue).toArray();
+      n.labels = new char[children.size()];
+      n.children = new Node[children.size()];
+      int i = 0;
+      for (Map.Entry<Character, BuildNode> e : children.entrySet()) {
+        n.labels[i] = e.getKey();
+        n.children[i] = e.getValue().freeze(rank, maxPerNode);
+        i++;
+      }
+      return n;
+    }
+  }
+}
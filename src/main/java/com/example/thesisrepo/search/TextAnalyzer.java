@@ -0,0 +1,162 @@
+package com.example.thesisrepo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Text analysis shared by indexing and query parsing:
+ * tokenizer → lower-case → stopword filter → stemmer.
+ *
+ * Each document is stemmed with the rules of its detected {@link Language};
+ * both the surface form and the stem are emitted, so exact and prefix
+ * matching keep working next to affix-insensitive matching. A query term
+ * does not know its language and is expanded to its stem under every
+ * language instead.
+ *
+ * Tokens are assembled in a per-thread char buffer and stemmed in place;
+ * the only allocations per token are the emitted strings.
+ */
+final class TextAnalyzer {
+
+  /** Tokens longer than this are cut; nothing useful is that long. */
+  static final int MAX_TOKEN_LENGTH = 64;
+
+  enum Language {
+    INDONESIAN(Set.of(
+      "ada", "adalah", "agar", "akan", "aku", "anda", "antara", "apa", "atau", "bagi", "bahwa",
+      "banyak", "beberapa", "belum", "bisa", "dalam", "dan", "dapat", "dari", "dengan", "di", "dia",
+      "hal", "hanya", "harus", "ia", "ini", "itu", "jika", "juga", "kami", "karena", "ke", "kita",
+      "lain", "lebih", "maka", "masih", "mereka", "namun", "oleh", "pada", "para", "saat", "saja",
+      "sangat", "sebagai", "sebuah", "secara", "sedang", "sehingga", "sejak", "seperti", "serta",
+      "setelah", "suatu", "sudah", "tanpa", "telah", "tentang", "terhadap", "tersebut", "tetapi",
+      "tidak", "untuk", "yaitu", "yakni", "yang")),
+    ENGLISH(Set.of(
+      "a", "about", "an", "and", "are", "as", "at", "be", "been", "but", "by", "for", "from", "has",
+      "have", "in", "into", "is", "it", "its", "of", "on", "or", "our", "that", "the", "their", "then",
+      "there", "these", "this", "those", "to", "was", "we", "were", "which", "while", "with", "within"));
+
+    final Set<String> stopwords;
+
+    Language(Set<String> stopwords) {
+      this.stopwords = stopwords;
+    }
+  }
+
+  /** One query word: its surface form plus its stems, any of which may match. */
+  record QueryTerm(String surface, List<String> stems) { }
+
+  private static final class Buffers {
+    final char[] token = new char[MAX_TOKEN_LENGTH];
+    final char[] stem = new char[MAX_TOKEN_LENGTH];
+    final Stemmer indonesian = new IndonesianStemmer();
+    final Stemmer english = new EnglishStemmer();
+
+    Stemmer stemmer(Language language) {
+      return language == Language.ENGLISH ? english : indonesian;
+    }
+  }
+
+  private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+  private TextAnalyzer() {
+  }
+
+  /**
+   * Language with the most stopword hits across the fields; Indonesian on a tie,
+   * since most of the catalogue is written in it.
+   */
+  static Language detect(String... fields) {
+    int[] hits = new int[Language.values().length];
+    for (String field : fields) {
+      forEachToken(field, BUFFERS.get(), token -> {
+        for (Language l : Language.values()) {
+          if (l.stopwords.contains(token)) hits[l.ordinal()]++;
+        }
+      });
+    }
+    return hits[Language.ENGLISH.ordinal()] > hits[Language.INDONESIAN.ordinal()]
+      ? Language.ENGLISH
+      : Language.INDONESIAN;
+  }
+
+  /** Index terms of {@code text}: stopwords dropped, each word emitted as itself and its stem. */
+  static void analyze(String text, Language language, Consumer<String> out) {
+    Buffers buf = BUFFERS.get();
+    Stemmer stemmer = buf.stemmer(language);
+    forEachToken(text, buf, token -> {
+      if (isStopword(token)) {
+        return;
+      }
+      out.accept(token);
+      String stem = stem(token, stemmer, buf);
+      if (stem != null) out.accept(stem);
+    });
+  }
+
+  /**
+   * Query words in order. Stopwords are dropped except for the last word,
+   * which may be a prefix of something longer ("in" → "indonesia").
+   */
+  static List<QueryTerm> analyzeQuery(String query) {
+    Buffers buf = BUFFERS.get();
+    List<String> tokens = new ArrayList<>();
+    forEachToken(query, buf, tokens::add);
+
+    List<QueryTerm> out = new ArrayList<>(tokens.size());
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      boolean last = i == tokens.size() - 1;
+      if (!last && isStopword(token)) {
+        continue;
+      }
+      List<String> stems = new ArrayList<>(2);
+      for (Language l : Language.values()) {
+        String stem = stem(token, buf.stemmer(l), buf);
+        if (stem != null && !stems.contains(stem)) stems.add(stem);
+      }
+      out.add(new QueryTerm(token, stems));
+    }
+    return out;
+  }
+
+  /** Whether {@code token} is a stopword in either language; stopwords are never indexed. */
+  static boolean isStopword(String token) {
+    return Language.INDONESIAN.stopwords.contains(token) || Language.ENGLISH.stopwords.contains(token);
+  }
+
+  // stem of a token, or null when it is unchanged or not a plain word
+  private static String stem(String token, Stemmer stemmer, Buffers buf) {
+    int len = token.length();
+    for (int i = 0; i < len; i++) {
+      char c = token.charAt(i);
+      if (c < 'a' || c > 'z') return null; // numbers, codes, non-Latin scripts
+      buf.stem[i] = c;
+    }
+    int stemmed = stemmer.stem(buf.stem, len);
+    if (stemmed == len || stemmed < 2) {
+      return null;
+    }
+    return new String(buf.stem, 0, stemmed);
+  }
+
+  // same token boundaries as ThesisSearchIndex.tokenize
+  private static void forEachToken(String text, Buffers buf, Consumer<String> out) {
+    if (text == null) return;
+    char[] token = buf.token;
+    int len = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        if (len < token.length) token[len++] = Character.toLowerCase(c);
+      } else if (len > 0) {
+        out.accept(new String(token, 0, len));
+        len = 0;
+      }
+    }
+    if (len > 0) {
+      out.accept(new String(token, 0, len));
+    }
+  }
+}
@@ -0,0 +1,619 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisFullText;
+import com.example.thesisrepo.thesis.ThesisFullTextRepository;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.thesis.ThesisTextExtractedEvent;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index (term → posting list of thesis ids) over the
+ * title, abstract and keywords of published theses, plus separate fields for
+ * the text extracted from their PDFs and for student/supervisor names.
+ * Document and query text both go through {@link TextAnalyzer}, so
+ * Indonesian and English affix variants of a word find each other.
+ *
+ * A character-trigram index over the term dictionary backs typo-tolerant
+ * matching, and one bitmap per year/faculty/major value serves facet counts.
+ *
+ * Built once on startup and then kept up to date from {@link ThesisPublishedEvent}
+ * and {@link ThesisWithdrawnEvent} (rebuilt on {@link CatalogReloadEvent} when
+ * another node changed the catalog), so public keyword search never has to scan
+ * the thesis table. Re-indexing a thesis leaves its old ordinal dead; once more
+ * than {@code search.index.max-dead-ordinals} have piled up, the live documents
+ * are renumbered and whatever only the dead ones used is dropped.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThesisSearchIndex {
+
+  private final ThesisRepository theses;
+  private final ThesisFullTextRepository fullTexts;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  @Value("${search.index.max-dead-ordinals:256}")
+  private int maxDeadOrdinals;
+
+  // term → sorted ordinals; TreeMap so the last query term can be prefix-matched
+  private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+  // same, for text extracted from the PDF (scope=fulltext)
+  private final NavigableMap<String, PostingList> bodyPostings = new TreeMap<>();
+  // case-folded, accent-stripped tokens of studentName/supervisorName (author filter)
+  private final NavigableMap<String, PostingList> namePostings = new TreeMap<>();
+
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+  // thesis id ↔ dense document ordinal
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private long[] ids = new long[64];
+  private final BitSet live = new BitSet();
+  private int nextOrdinal;
+
+  // typo tolerance: character trigram → ordinals of dictionary terms containing it
+  private final Map<String, PostingList> trigrams = new HashMap<>();
+  private final List<String> termsByOrdinal = new ArrayList<>();
+  private int[] trigramCounts = new int[256];
+
+  // facet value → bitmap of ordinals, for sidebar counts
+  private final FacetBitmaps years = new FacetBitmaps();
+  private final FacetBitmaps faculties = new FacetBitmaps();
+  private final FacetBitmaps majors = new FacetBitmaps();
+
+  @EventListener({ ApplicationReadyEvent.class, CatalogReloadEvent.class })
+  public void rebuild() {
+    List<Thesis> published = theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED);
+
+    // read extracted text before taking the lock; searches keep running meanwhile
+    Map<Long, Thesis> byId = new HashMap<>();
+    published.forEach(t -> byId.put(t.getId(), t));
+    Map<Long, Set<String>> bodies = new HashMap<>();
+    for (ThesisFullText ft : fullTexts.findByThesisIdInAndStatus(byId.keySet(), ThesisFullText.Status.DONE)) {
+      bodies.put(ft.getThesisId(), readTerms(ft.getTextPath(), languageOf(byId.get(ft.getThesisId()))));
+    }
+
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      bodyPostings.clear();
+      namePostings.clear();
+      trigrams.clear();
+      termsByOrdinal.clear();
+      years.clear();
+      faculties.clear();
+      majors.clear();
+      ordinals.clear();
+      live.clear();
+      nextOrdinal = 0;
+      for (Thesis t : published) {
+        add(t, bodies.getOrDefault(t.getId(), Set.of()));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public void onPublished(ThesisPublishedEvent event) {
+    index(event.thesis());
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public void onWithdrawn(ThesisWithdrawnEvent event) {
+    index(event.thesis());
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public void onTextExtracted(ThesisTextExtractedEvent event) {
+    theses.findById(event.thesisId())
+      .filter(t -> t.getCurrentStatus() == Thesis.ThesisStatus.PUBLISHED)
+      .ifPresent(this::index);
+  }
+
+  /** Add (or re-index) a single thesis. Non-published theses are dropped from the index. */
+  public void index(Thesis thesis) {
+    Set<String> body = fullTexts.findById(thesis.getId())
+      .filter(ft -> ft.getStatus() == ThesisFullText.Status.DONE)
+      .map(ft -> readTerms(ft.getTextPath(), languageOf(thesis)))
+      .orElse(Set.of());
+
+    lock.writeLock().lock();
+    try {
+      Integer previous = ordinals.remove(thesis.getId());
+      if (previous != null) {
+        live.clear(previous); // stale postings are skipped via the live set
+      }
+      if (thesis.getCurrentStatus() == Thesis.ThesisStatus.PUBLISHED) {
+        add(thesis, body);
+      }
+      if (nextOrdinal - live.cardinality() > maxDeadOrdinals) {
+        compact();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ids of published theses containing every term of the query, in the order
+   * they were indexed; callers that page or rank re-sort them.
+   * The last term is matched as a prefix so partially typed words still hit,
+   * and every term also matches through its stem ("pembelajaran" finds "mempelajari").
+   * With {@code fullText}, a term may also be found in the extracted PDF text.
+   */
+  public List<Long> search(String query, boolean fullText) {
+    List<TextAnalyzer.QueryTerm> terms = TextAnalyzer.analyzeQuery(query);
+    if (terms.isEmpty()) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      BitSet docs = fullText ? matchWithBody(terms) : match(terms);
+      List<Long> out = new ArrayList<>(docs.cardinality());
+      for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+        out.add(ids[doc]);
+      }
+      return out;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Ids of published theses whose student or supervisor name matches every
+   * token of {@code name}, each token as a prefix ("sit nur" → "Siti Nurhaliza").
+   * Matching is case- and accent-insensitive and never touches the users table.
+   */
+  public List<Long> searchAuthor(String name) {
+    List<String> tokens = nameTokens(name);
+    if (tokens.isEmpty()) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      BitSet docs = matchName(tokens);
+      List<Long> out = new ArrayList<>(docs.cardinality());
+      for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+        out.add(ids[doc]);
+      }
+      return out;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // caller holds the read lock
+  private BitSet matchName(List<String> tokens) {
+    BitSet out = (BitSet) live.clone();
+    for (String token : tokens) {
+      BitSet docs = new BitSet(nextOrdinal);
+      prefixUnion(namePostings, token, docs);
+      out.and(docs);
+    }
+    return out;
+  }
+
+  /** Tokens of a person name, lower-cased with diacritics removed ("Zoë" → "zoe"). */
+  static List<String> nameTokens(String name) {
+    if (name == null || name.isBlank()) {
+      return List.of();
+    }
+    String folded = COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+    return tokenize(folded);
+  }
+
+  /**
+   * Typo-tolerant variant of {@link #search}. Each query term is expanded to the
+   * dictionary terms whose trigram similarity (shared / union, as in pg_trgm) is at
+   * least {@code threshold}; candidates come from the trigram postings only, so the
+   * vocabulary is never scanned. Query words go through
+   * {@link TextAnalyzer#analyzeQuery}, so stopwords, which are never indexed, are
+   * dropped except for the last word; a trailing stopword that matches nothing is
+   * ignored too. A thesis must match every remaining term, and results are ordered
+   * by their average best similarity.
+   */
+  public List<Long> searchFuzzy(String query, double threshold) {
+    List<TextAnalyzer.QueryTerm> terms = TextAnalyzer.analyzeQuery(query);
+    if (terms.isEmpty()) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      Map<Integer, Double> scores = null;
+      for (int t = 0; t < terms.size(); t++) {
+        String term = terms.get(t).surface();
+        Map<Integer, Double> termScores = new HashMap<>();
+        for (Map.Entry<Integer, Double> candidate : similarTerms(term, threshold).entrySet()) {
+          PostingList p = postings.get(termsByOrdinal.get(candidate.getKey()));
+          for (int i = 0; i < p.size(); i++) {
+            int doc = p.get(i);
+            if (live.get(doc)) {
+              termScores.merge(doc, candidate.getValue(), Math::max);
+            }
+          }
+        }
+        if (termScores.isEmpty() && t > 0 && t == terms.size() - 1 && TextAnalyzer.isStopword(term)) {
+          break; // "sistem informasi dan": the trailing stopword was not a prefix after all
+        }
+        if (scores == null) {
+          scores = termScores;
+        } else {
+          Map<Integer, Double> both = new HashMap<>();
+          for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+            Double other = termScores.get(e.getKey());
+            if (other != null) {
+              both.put(e.getKey(), e.getValue() + other);
+            }
+          }
+          scores = both;
+        }
+        if (scores.isEmpty()) {
+          return List.of();
+        }
+      }
+
+      return scores.entrySet().stream()
+        .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+        .map(e -> ids[e.getKey()])
+        .toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // caller holds the read lock; dictionary term ordinal → similarity
+  private Map<Integer, Double> similarTerms(String term, double threshold) {
+    Set<String> grams = trigramsOf(term);
+    Map<Integer, Integer> shared = new HashMap<>();
+    for (String g : grams) {
+      PostingList p = trigrams.get(g);
+      if (p == null) continue;
+      for (int i = 0; i < p.size(); i++) {
+        shared.merge(p.get(i), 1, Integer::sum);
+      }
+    }
+    Map<Integer, Double> out = new HashMap<>();
+    for (Map.Entry<Integer, Integer> e : shared.entrySet()) {
+      int common = e.getValue();
+      double similarity = (double) common / (grams.size() + trigramCounts[e.getKey()] - common);
+      if (similarity >= threshold) {
+        out.put(e.getKey(), similarity);
+      }
+    }
+    return out;
+  }
+
+  // caller holds the write lock
+  private void registerTrigrams(String term) {
+    int ordinal = termsByOrdinal.size();
+    termsByOrdinal.add(term);
+    Set<String> grams = trigramsOf(term);
+    if (ordinal == trigramCounts.length) {
+      trigramCounts = Arrays.copyOf(trigramCounts, ordinal * 2);
+    }
+    trigramCounts[ordinal] = grams.size();
+    for (String g : grams) {
+      trigrams.computeIfAbsent(g, k -> new PostingList()).add(ordinal);
+    }
+  }
+
+  /** pg_trgm-style trigrams: the word is padded with two leading and one trailing blank. */
+  static Set<String> trigramsOf(String term) {
+    String padded = "  " + term + " ";
+    Set<String> out = new HashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      out.add(padded.substring(i, i + 3));
+    }
+    return out;
+  }
+
+  /**
+   * Per-value counts of year, faculty and major for the current query.
+   * The keyword match set is intersected with the per-value bitmaps; each
+   * dimension honours the filters selected on the <em>other</em> dimensions,
+   * so a sidebar can still show alternatives for the one being filtered.
+   * A non-null {@code fuzzyThreshold} uses the typo-tolerant match set instead.
+   */
+  public Map<String, Map<String, Integer>> facetCounts(String keyword, Double fuzzyThreshold, boolean fullText,
+                                                      String author, Integer year, String faculty, String major) {
+    lock.readLock().lock();
+    try {
+      List<TextAnalyzer.QueryTerm> terms = TextAnalyzer.analyzeQuery(keyword);
+      BitSet base;
+      if (terms.isEmpty()) {
+        base = (BitSet) live.clone();
+      } else if (fuzzyThreshold != null) {
+        base = new BitSet(nextOrdinal);
+        for (Long id : searchFuzzy(keyword, fuzzyThreshold)) {
+          base.set(ordinals.get(id));
+        }
+      } else {
+        base = fullText ? matchWithBody(terms) : match(terms);
+      }
+      List<String> authorTokens = nameTokens(author);
+      if (!authorTokens.isEmpty()) {
+        base.and(matchName(authorTokens));
+      }
+
+      BitSet yearMask = year != null ? years.select(String.valueOf(year)) : null;
+      BitSet facultyMask = faculties.select(faculty);
+      BitSet majorMask = majors.select(major);
+
+      Map<String, Map<String, Integer>> out = new LinkedHashMap<>();
+      out.put("year", years.counts(restrict(base, facultyMask, majorMask)));
+      out.put("faculty", faculties.counts(restrict(base, yearMask, majorMask)));
+      out.put("major", majors.counts(restrict(base, yearMask, facultyMask)));
+      return out;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static BitSet restrict(BitSet base, BitSet a, BitSet b) {
+    BitSet mask = (BitSet) base.clone();
+    if (a != null) mask.and(a);
+    if (b != null) mask.and(b);
+    return mask;
+  }
+
+  // caller holds the read lock; result contains live docs only
+  private BitSet match(List<TextAnalyzer.QueryTerm> terms) {
+    // each earlier term: any of the posting lists of its surface form and stems
+    List<List<PostingList>> required = new ArrayList<>();
+    for (TextAnalyzer.QueryTerm term : terms.subList(0, terms.size() - 1)) {
+      List<PostingList> any = new ArrayList<>(3);
+      addIfPresent(any, postings.get(term.surface()));
+      for (String stem : term.stems()) {
+        addIfPresent(any, postings.get(stem));
+      }
+      if (any.isEmpty()) {
+        return new BitSet();
+      }
+      required.add(any);
+    }
+
+    BitSet lastDocs = new BitSet(nextOrdinal);
+    termDocs(postings, terms.get(terms.size() - 1), true, lastDocs);
+    lastDocs.and(live);
+    if (required.isEmpty() || lastDocs.isEmpty()) {
+      return lastDocs;
+    }
+
+    // drive the intersection from the term with the fewest postings
+    required.sort(Comparator.comparingInt(ThesisSearchIndex::totalSize));
+    BitSet out = new BitSet(nextOrdinal);
+    for (PostingList driver : required.get(0)) {
+      outer:
+      for (int i = 0; i < driver.size(); i++) {
+        int doc = driver.get(i);
+        if (!lastDocs.get(doc) || out.get(doc)) continue;
+        for (int j = 1; j < required.size(); j++) {
+          if (!anyContains(required.get(j), doc)) continue outer;
+        }
+        out.set(doc);
+      }
+    }
+    return out;
+  }
+
+  // caller holds the read lock; metadata ∪ body postings per term, then AND across terms
+  private BitSet matchWithBody(List<TextAnalyzer.QueryTerm> terms) {
+    BitSet out = (BitSet) live.clone();
+    for (int i = 0; i < terms.size() && !out.isEmpty(); i++) {
+      boolean last = i == terms.size() - 1;
+      BitSet docs = new BitSet(nextOrdinal);
+      termDocs(postings, terms.get(i), last, docs);
+      termDocs(bodyPostings, terms.get(i), last, docs);
+      out.and(docs);
+    }
+    return out;
+  }
+
+  // docs containing the term's surface form (as a prefix for the last term) or one of its stems
+  private static void termDocs(NavigableMap<String, PostingList> map, TextAnalyzer.QueryTerm term,
+                               boolean prefix, BitSet into) {
+    if (prefix) {
+      prefixUnion(map, term.surface(), into);
+    } else {
+      union(map.get(term.surface()), into);
+    }
+    for (String stem : term.stems()) {
+      union(map.get(stem), into);
+    }
+  }
+
+  private static void addIfPresent(List<PostingList> lists, PostingList p) {
+    if (p != null) lists.add(p);
+  }
+
+  private static int totalSize(List<PostingList> lists) {
+    int n = 0;
+    for (PostingList p : lists) n += p.size();
+    return n;
+  }
+
+  private static boolean anyContains(List<PostingList> lists, int doc) {
+    for (PostingList p : lists) {
+      if (p.contains(doc)) return true;
+    }
+    return false;
+  }
+
+  private static void prefixUnion(NavigableMap<String, PostingList> map, String prefix, BitSet into) {
+    for (PostingList p : map.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+      union(p, into);
+    }
+  }
+
+  private static void union(PostingList p, BitSet into) {
+    if (p == null) return;
+    for (int i = 0; i < p.size(); i++) {
+      into.set(p.get(i));
+    }
+  }
+
+  /** Distinct analyzed terms of an extracted-text file, read line by line. */
+  private static Set<String> readTerms(String textPath, TextAnalyzer.Language language) {
+    Set<String> terms = new HashSet<>();
+    if (textPath == null) {
+      return terms;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(Path.of(textPath), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        TextAnalyzer.analyze(line, language, terms::add);
+      }
+    } catch (IOException e) {
+      // a missing or unreadable sidecar only means no full-text hits for this thesis
+    }
+    return terms;
+  }
+
+  // caller holds the write lock; renumbers live docs densely, keeping their order
+  private void compact() {
+    int[] remap = new int[nextOrdinal];
+    int n = 0;
+    for (int doc = 0; doc < nextOrdinal; doc++) {
+      remap[doc] = live.get(doc) ? n++ : -1;
+    }
+    long[] liveIds = new long[Math.max(64, n * 2)];
+    for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+      liveIds[remap[doc]] = ids[doc];
+    }
+    ids = liveIds;
+    ordinals.replaceAll((id, doc) -> remap[doc]);
+    live.clear();
+    live.set(0, n);
+    nextOrdinal = n;
+
+    remap(postings, remap);
+    remap(bodyPostings, remap);
+    remap(namePostings, remap);
+    years.remap(remap);
+    faculties.remap(remap);
+    majors.remap(remap);
+
+    // dictionary terms only dead docs used are gone from postings; rebuild the trigrams to match
+    trigrams.clear();
+    termsByOrdinal.clear();
+    for (String term : postings.keySet()) {
+      registerTrigrams(term);
+    }
+  }
+
+  private static void remap(NavigableMap<String, PostingList> map, int[] remap) {
+    Iterator<Map.Entry<String, PostingList>> it = map.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, PostingList> e = it.next();
+      PostingList old = e.getValue();
+      PostingList p = new PostingList();
+      for (int i = 0; i < old.size(); i++) {
+        int doc = remap[old.get(i)];
+        if (doc >= 0) p.add(doc);
+      }
+      if (p.size() == 0) {
+        it.remove();
+      } else {
+        e.setValue(p);
+      }
+    }
+  }
+
+  /** Number of document ordinals handed out, live or dead. */
+  int ordinalCount() {
+    lock.readLock().lock();
+    try {
+      return nextOrdinal;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // caller holds the write lock
+  private void add(Thesis t, Set<String> bodyTerms) {
+    int doc = nextOrdinal++;
+    if (doc == ids.length) {
+      ids = Arrays.copyOf(ids, doc * 2);
+    }
+    ids[doc] = t.getId();
+    ordinals.put(t.getId(), doc);
+    live.set(doc);
+
+    if (t.getYearPublished() != null) {
+      years.add(String.valueOf(t.getYearPublished()), doc);
+    }
+    faculties.add(t.getFaculty(), doc);
+    majors.add(t.getMajor(), doc);
+
+    for (String name : new String[] { t.getStudentName(), t.getSupervisorName() }) {
+      for (String token : nameTokens(name)) {
+        namePostings.computeIfAbsent(token, k -> new PostingList()).add(doc);
+      }
+    }
+
+    TextAnalyzer.Language language = languageOf(t);
+    for (String field : new String[] { t.getTitle(), t.getAbstractText(), t.getKeywords() }) {
+      TextAnalyzer.analyze(field, language, term -> {
+        PostingList p = postings.get(term);
+        if (p == null) {
+          p = new PostingList();
+          postings.put(term, p);
+          registerTrigrams(term);
+        }
+        p.add(doc);
+      });
+    }
+    for (String term : bodyTerms) {
+      bodyPostings.computeIfAbsent(term, k -> new PostingList()).add(doc);
+    }
+  }
+
+  private static TextAnalyzer.Language languageOf(Thesis t) {
+    return TextAnalyzer.detect(t.getTitle(), t.getAbstractText(), t.getKeywords());
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    List<String> out = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        current.append(Character.toLowerCase(c));
+      } else if (current.length() > 0) {
+        out.add(current.toString());
+        current.setLength(0);
+      }
+    }
+    if (current.length() > 0) {
+      out.add(current.toString());
+    }
+    return out;
+  }
+}
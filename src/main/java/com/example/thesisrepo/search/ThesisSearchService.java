@@ -0,0 +1,174 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.PublicThesisView;
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs public thesis searches against one of two backends, selected by
+ * {@code search.backend}:
+ *  - memory   (default): keyword hits from {@link ThesisSearchIndex}, other filters in Java
+ *  - postgres: everything pushed into one ranked full-text query on thesis.search_vector
+ *
+ * Fuzzy (typo-tolerant) keyword matching, full-text scope and the author name
+ * filter always use the in-memory index; the fuzzy cut-off is
+ * {@code search.fuzzy.threshold}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThesisSearchService {
+
+  private final ThesisRepository theses;
+  private final ThesisSearchIndex searchIndex;
+
+  @Value("${search.backend:memory}")
+  private String backend;
+
+  @Value("${search.fuzzy.threshold:0.3}")
+  private double fuzzyThreshold;
+
+  /** Published theses matching all non-blank filters. */
+  public List<PublicThesisView> search(String keyword, boolean fuzzy, boolean fullText, String author,
+                             Integer year, String faculty, String major) {
+    List<Long> authorIds = hasText(author) ? searchIndex.searchAuthor(author) : null;
+
+    if (usePostgres(keyword, fuzzy, fullText)) {
+      List<PublicThesisView> rows = theses.searchPublishedFullText(toTsQuery(keyword), year, blankToNull(faculty), blankToNull(major));
+      if (authorIds == null) {
+        return rows;
+      }
+      Set<Long> allowed = new HashSet<>(authorIds);
+      return rows.stream().filter(t -> allowed.contains(t.getId())).collect(Collectors.toList());
+    }
+
+    List<Long> ids = candidateIds(keyword, fuzzy, fullText, authorIds);
+    if (ids == null) {
+      return theses.findPublicViews(Thesis.ThesisStatus.PUBLISHED, year, lowerOrNull(faculty), lowerOrNull(major));
+    }
+
+    return loadInOrder(ids).stream()
+      .filter(t -> year == null || year.equals(t.getYearPublished()))
+      .filter(t -> !hasText(faculty) || faculty.equalsIgnoreCase(t.getFaculty()))
+      .filter(t -> !hasText(major) || major.equalsIgnoreCase(t.getMajor()))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * One keyset page of the same search, ordered by (publishedAt, id) descending.
+   * A null {@code afterPublishedAt} starts from the newest thesis.
+   */
+  public PublishedPage searchPage(String keyword, boolean fuzzy, boolean fullText, String author,
+                                  Integer year, String faculty, String major,
+                                  Instant afterPublishedAt, Long afterId, int limit) {
+    if (!hasText(author) && usePostgres(keyword, fuzzy, fullText)) {
+      return PublishedPage.of(theses.searchPublishedFullTextPage(
+        toTsQuery(keyword), year, blankToNull(faculty), blankToNull(major), afterPublishedAt, afterId, limit + 1), limit);
+    }
+
+    List<Long> ids = candidateIds(keyword, fuzzy, fullText, hasText(author) ? searchIndex.searchAuthor(author) : null);
+    if (ids == null) {
+      return PublishedPage.of(theses.findPublishedPage(Thesis.ThesisStatus.PUBLISHED, year,
+        lowerOrNull(faculty), lowerOrNull(major), afterPublishedAt, afterId, Pageable.ofSize(limit + 1)), limit);
+    }
+    if (ids.isEmpty()) {
+      return new PublishedPage(List.of(), false);
+    }
+    // only the page's ids come back, so the view load binds at most limit + 1 values
+    List<Long> pageIds = theses.findPublishedPageIdsIn(
+      ids.toArray(Long[]::new), year, blankToNull(faculty), blankToNull(major), afterPublishedAt, afterId, limit + 1);
+    return PublishedPage.of(loadInOrder(pageIds), limit);
+  }
+
+  /**
+   * Year/faculty/major counts for the query, from the same backend that
+   * produced the result rows: the in-memory facet bitmaps, or a GROUP BY over
+   * the postgres full-text match (whose 'simple' tsquery does not stem, so its
+   * hits differ from the in-memory index's).
+   */
+  public Map<String, Map<String, Integer>> facetCounts(String keyword, boolean fuzzy, boolean fullText, String author,
+                                                      Integer year, String faculty, String major) {
+    if (!usePostgres(keyword, fuzzy, fullText)) {
+      return searchIndex.facetCounts(keyword, fuzzy ? fuzzyThreshold : null, fullText, author, year, faculty, major);
+    }
+    Long[] authorIds = hasText(author) ? searchIndex.searchAuthor(author).toArray(Long[]::new) : new Long[0];
+    Map<String, Map<String, Integer>> out = new LinkedHashMap<>();
+    for (String dimension : List.of("year", "faculty", "major")) {
+      out.put(dimension, new TreeMap<>());
+    }
+    for (Object[] row : theses.countPublishedFacets(toTsQuery(keyword), hasText(author), authorIds,
+        year, blankToNull(faculty), blankToNull(major))) {
+      out.get((String) row[0]).put((String) row[1], ((Number) row[2]).intValue());
+    }
+    return out;
+  }
+
+  // fuzzy and full-text matching only exist in the in-memory index
+  private boolean usePostgres(String keyword, boolean fuzzy, boolean fullText) {
+    return "postgres".equalsIgnoreCase(backend) && !(hasText(keyword) && (fuzzy || fullText));
+  }
+
+  /**
+   * Ids allowed by the keyword and author filters, or null when neither filter is set.
+   * Fuzzy hits come best similarity first; exact hits in the order the index holds them.
+   */
+  private List<Long> candidateIds(String keyword, boolean fuzzy, boolean fullText, List<Long> authorIds) {
+    if (!hasText(keyword)) {
+      return authorIds;
+    }
+    List<Long> ids = fuzzy ? searchIndex.searchFuzzy(keyword, fuzzyThreshold) : searchIndex.search(keyword, fullText);
+    if (authorIds == null) {
+      return ids;
+    }
+    Set<Long> allowed = new HashSet<>(authorIds);
+    return ids.stream().filter(allowed::contains).toList();
+  }
+
+  /** Published views for {@code ids}, in the given order; one query, no entity loads. */
+  public List<PublicThesisView> loadInOrder(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, PublicThesisView> byId = theses.findPublicViewsByIdIn(ids, Thesis.ThesisStatus.PUBLISHED).stream()
+      .collect(Collectors.toMap(PublicThesisView::getId, t -> t));
+    return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+  }
+
+  /**
+   * Same semantics as the in-memory index: every term must match, the last
+   * one as a prefix. Tokens are alphanumeric only, so they are safe to splice
+   * into a tsquery.
+   */
+  static String toTsQuery(String keyword) {
+    List<String> terms = ThesisSearchIndex.tokenize(keyword);
+    if (terms.isEmpty()) {
+      return null;
+    }
+    return String.join(" & ", terms) + ":*";
+  }
+
+  private static boolean hasText(String s) {
+    return s != null && !s.isBlank();
+  }
+
+  private static String blankToNull(String s) {
+    return s == null || s.isBlank() ? null : s;
+  }
+
+  private static String lowerOrNull(String s) {
+    return s == null || s.isBlank() ? null : s.toLowerCase();
+  }
+}
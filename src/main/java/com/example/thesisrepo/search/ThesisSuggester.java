@@ -0,0 +1,122 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Typeahead over titles, keywords, student and supervisor names of published theses.
+ *
+ * Suggestions are answered from an immutable {@link SuggestionTrie} held in memory;
+ * the trie is rebuilt and swapped in whenever a thesis is published or withdrawn,
+ * so lookups never touch the database. Each thesis's contribution to the weights
+ * is remembered, so publishing it again replaces it rather than counting twice.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThesisSuggester {
+
+  private final ThesisRepository theses;
+
+  @Value("${search.suggest.max-results:10}")
+  private int maxResults;
+
+  // "type|normalized text" → suggestion; weight = number of published theses using it
+  private final Map<String, Suggestion> entries = new HashMap<>();
+  // thesis id → the entry ids it added one to
+  private final Map<Long, List<String>> contributions = new HashMap<>();
+
+  private volatile SuggestionTrie trie = SuggestionTrie.empty();
+
+  @EventListener({ ApplicationReadyEvent.class, CatalogReloadEvent.class })
+  public synchronized void rebuild() {
+    entries.clear();
+    contributions.clear();
+    for (Thesis t : theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED)) {
+      collect(t);
+    }
+    swap();
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public synchronized void onPublished(ThesisPublishedEvent event) {
+    withdraw(event.thesis().getId());
+    collect(event.thesis());
+    swap();
+  }
+
+  @EventListener
+  @Order(CatalogVersion.INDEX_ORDER)
+  public synchronized void onWithdrawn(ThesisWithdrawnEvent event) {
+    withdraw(event.thesis().getId());
+    swap();
+  }
+
+  /** Best completions for what the user has typed so far, most used first. */
+  public List<Suggestion> suggest(String prefix, Integer limit) {
+    String key = String.join(" ", ThesisSearchIndex.tokenize(prefix));
+    if (key.isEmpty()) {
+      return List.of();
+    }
+    int n = limit == null || limit <= 0 ? maxResults : Math.min(limit, maxResults);
+    return trie.complete(key, n);
+  }
+
+  private void collect(Thesis t) {
+    List<String> added = new ArrayList<>();
+    add(t.getTitle(), "title", added);
+    if (t.getKeywords() != null) {
+      for (String kw : t.getKeywords().split(",")) {
+        add(kw.trim(), "keyword", added);
+      }
+    }
+    add(t.getStudentName(), "author", added);
+    add(t.getSupervisorName(), "supervisor", added);
+    contributions.put(t.getId(), added);
+  }
+
+  private void add(String text, String type, List<String> added) {
+    if (text == null || text.isBlank()) return;
+    String id = type + "|" + String.join(" ", ThesisSearchIndex.tokenize(text));
+    if (added.contains(id)) return; // a thesis counts once per suggestion
+    added.add(id);
+    entries.merge(id, new Suggestion(text, type, 1),
+      (old, x) -> new Suggestion(old.text(), type, old.weight() + 1));
+  }
+
+  // takes back what a thesis added; entries nobody else uses go away
+  private void withdraw(Long thesisId) {
+    List<String> added = contributions.remove(thesisId);
+    if (added == null) return;
+    for (String id : added) {
+      entries.computeIfPresent(id, (k, old) ->
+        old.weight() > 1 ? new Suggestion(old.text(), old.type(), old.weight() - 1) : null);
+    }
+  }
+
+  // caller holds the monitor
+  private void swap() {
+    List<Suggestion> list = new ArrayList<>(entries.values());
+    List<List<String>> keys = new ArrayList<>(list.size());
+    for (Suggestion s : list) {
+      // findable from the start of every word, so "chain" completes "Supply Chain ..."
+      List<String> tokens = ThesisSearchIndex.tokenize(s.text());
+      List<String> starts = new ArrayList<>(tokens.size());
+      for (int i = 0; i < tokens.size(); i++) {
+        starts.add(String.join(" ", tokens.subList(i, tokens.size())));
+      }
+      keys.add(starts);
+    }
+    trie = SuggestionTrie.build(list, keys, maxResults);
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.thesisrepo.service;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 and size of an upload, plus the blob key layout shared by the
+ * content-addressed storage backends: {@code blobs/ab/cd/<sha256>.pdf}.
+ */
+record ContentHash(String sha256, long size) {
+
+  /** One read-only streaming pass over the upload. */
+  static ContentHash of(InputStreamSource content) throws IOException {
+    try (Hashing in = new Hashing(content.getInputStream())) {
+      in.transferTo(OutputStream.nullOutputStream());
+      return in.result();
+    }
+  }
+
+  static String blobKey(String sha256) {
+    return "blobs/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".pdf";
+  }
+
+  /** The hash in a blob file name, or null if the name is not one. */
+  static String fromBlobName(String name) {
+    return name.matches("[0-9a-f]{64}\\.pdf") ? name.substring(0, 64) : null;
+  }
+
+  static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Hashes and counts the bytes read through it, so a store can hash while it writes. */
+  static final class Hashing extends DigestInputStream {
+    private long size;
+
+    Hashing(InputStream in) {
+      super(in, newDigest());
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) size++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      int n = super.read(buf, off, len);
+      if (n > 0) size += n;
+      return n;
+    }
+
+    /** Hash and size of what has been read; call once, after the last byte. */
+    ContentHash result() {
+      return new ContentHash(HexFormat.of().formatHex(getMessageDigest().digest()), size);
+    }
+  }
+}
@@ -3,10 +3,13 @@ package com.example.thesisrepo.service;
 import com.example.thesisrepo.user.User;
 import com.example.thesisrepo.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class CurrentUserService {
@@ -20,4 +23,13 @@ public class CurrentUserService {
     return users.findByEmail(auth.getName())
       .orElseThrow(() -> new IllegalStateException("User not found: " + auth.getName()));
   }
+
+  /** The signed-in user, or empty on anonymous requests (public endpoints). */
+  public Optional<User> currentUser() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+      return Optional.empty();
+    }
+    return users.findByEmail(auth.getName());
+  }
 }
@@ -13,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 
@@ -24,6 +25,8 @@ public class DataSeeder implements CommandLineRunner {
   private final ThesisRepository thesisRepository;
   private final PasswordEncoder encoder;
 
+  // one transaction so profiles can @MapsId the user saved just before them
+  @Transactional
   @Override
   public void run(String... args) {
     seedAdmin("admin@univ.local", "Admin123!", "System Administrator");
@@ -93,7 +96,6 @@ public class DataSeeder implements CommandLineRunner {
         .build());
       
       lecturerProfiles.save(LecturerProfile.builder()
-        .userId(user.getId())
         .user(user)
         .name(name)
         .department(department)
@@ -112,7 +114,6 @@ public class DataSeeder implements CommandLineRunner {
         .build());
       
       studentProfiles.save(StudentProfile.builder()
-        .userId(user.getId())
         .user(user)
         .name(name)
         .studentNumber(studentNumber)
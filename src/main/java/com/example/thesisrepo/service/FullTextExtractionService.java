@@ -0,0 +1,82 @@
+package com.example.thesisrepo.service;
+
+import com.example.thesisrepo.thesis.ThesisFullText;
+import com.example.thesisrepo.thesis.ThesisFullTextRepository;
+import com.example.thesisrepo.thesis.ThesisTextExtractedEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Pulls the text out of uploaded thesis PDFs (in the background, as a
+ * processing stage).
+ *
+ * The PDF is opened from disk with a temp-file-only stream cache and stripped
+ * one page at a time straight into a UTF-8 sidecar file, so even very large
+ * PDFs are never held in the heap. PDFs in a remote store are first streamed
+ * to a temp file.
+ */
+@Service
+@RequiredArgsConstructor
+public class FullTextExtractionService {
+
+  private final ThesisFullTextRepository fullTexts;
+  private final ApplicationEventPublisher events;
+  private final StorageService storage;
+
+  @Value("${file.storage-root:${user.home}/Documents/ThesisRepo/uploads}")
+  private String root;
+
+  /**
+   * Extracts the text of a stored thesis PDF and records the outcome. Runs as
+   * the TEXT_EXTRACTION processing stage; a failure is recorded and rethrown
+   * so the stage is retried.
+   */
+  public void extract(Long thesisId, String locator) throws IOException {
+    ThesisFullText row = fullTexts.findById(thesisId)
+      .orElseGet(() -> ThesisFullText.builder().thesisId(thesisId).build());
+    try (LocalPdf pdf = LocalPdf.open(storage, locator)) {
+      Path out = Path.of(root, ".fulltext", thesisId + ".txt");
+      Files.createDirectories(out.getParent());
+
+      int pages;
+      try (PDDocument doc = Loader.loadPDF(pdf.path().toFile(), IOUtils.createTempFileOnlyStreamCache());
+           Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+        PDFTextStripper stripper = new PDFTextStripper();
+        pages = doc.getNumberOfPages();
+        for (int p = 1; p <= pages; p++) {
+          stripper.setStartPage(p);
+          stripper.setEndPage(p);
+          stripper.writeText(doc, writer);
+        }
+      }
+
+      row.setStatus(ThesisFullText.Status.DONE);
+      row.setPageCount(pages);
+      row.setTextBytes(Files.size(out));
+      row.setTextPath(out.toString());
+      row.setError(null);
+    } catch (IOException | RuntimeException e) {
+      row.setStatus(ThesisFullText.Status.FAILED);
+      row.setError(e.getMessage());
+      row.setExtractedAt(Instant.now());
+      fullTexts.save(row);
+      throw e;
+    }
+    row.setExtractedAt(Instant.now());
+    fullTexts.save(row);
+    events.publishEvent(new ThesisTextExtractedEvent(thesisId));
+  }
+}
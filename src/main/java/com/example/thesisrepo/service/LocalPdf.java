@@ -0,0 +1,58 @@
+package com.example.thesisrepo.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A stored PDF as a local file, for libraries that want one: the stored file
+ * itself on the local backend, or a temp copy of a remote object that is
+ * deleted again on close.
+ */
+@Slf4j
+public final class LocalPdf implements AutoCloseable {
+
+  private final Path path;
+  private final boolean temporary;
+
+  private LocalPdf(Path path, boolean temporary) {
+    this.path = path;
+    this.temporary = temporary;
+  }
+
+  public static LocalPdf open(StorageService storage, String locator) throws IOException {
+    StoredFile stored = storage.open(locator);
+    if (stored == null) {
+      throw new IOException("Stored PDF not found: " + locator);
+    }
+    if (stored.localPath() != null) {
+      return new LocalPdf(stored.localPath(), false);
+    }
+    Path temp = Files.createTempFile("thesis-", ".pdf");
+    try (InputStream in = stored.openRange(0, Math.max(0, stored.length() - 1))) {
+      Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    return new LocalPdf(temp, true);
+  }
+
+  public Path path() {
+    return path;
+  }
+
+  @Override
+  public void close() {
+    if (!temporary) return;
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.debug("Could not delete temp file {}", path);
+    }
+  }
+}
@@ -0,0 +1,464 @@
+package com.example.thesisrepo.service;
+
+import com.example.thesisrepo.storage.StoredBlob;
+import com.example.thesisrepo.storage.StoredBlobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local PDF storage under {@code file.storage-root} ({@code file.backend=local}, the default).
+ *
+ * Sharded mode ({@code file.storage-roots}, e.g. one directory per disk) spreads
+ * the PDFs over several roots: a {@link ShardRing} places each object key on one
+ * of them, and the locator is {@code shard://<key>} with no root in it. A file
+ * is looked for on its ring owner first and then on the other roots, so
+ * {@link #rebalance()} can move files after a root is added without touching
+ * the database. file.storage-root may itself be listed as a shard root to
+ * migrate an existing store: file:// locators under it that rebalancing moved
+ * are looked up by key the same way. Work files (.incoming, .uploads, ...) stay under {@code file.storage-root}.
+ *
+ * With {@code file.content-addressed} on, uploads are stored once per distinct
+ * content under {@code blobs/ab/cd/<sha256>.pdf} and reference-counted in
+ * {@link StoredBlob}: the upload is hashed first (a read-only pass), and only
+ * content not seen before is written. Streamed uploads cannot be read twice, so
+ * they are hashed while being written to {@code .incoming} and then renamed onto
+ * their blob (or dropped if it already exists). Otherwise every upload gets its
+ * own file under the caller's object key.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "file.backend", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalStorageService implements StorageService {
+
+  private static final String SHARD_SCHEME = "shard://";
+
+  private final StoredBlobRepository blobs;
+
+  // reference changes and blob writes/deletes for one hash happen under one of these
+  private final Object[] locks = newLocks(64);
+
+  @Value("${file.storage-root:${user.home}/Documents/ThesisRepo/uploads}")
+  private String root;
+
+  @Value("${file.content-addressed:false}")
+  private boolean contentAddressed;
+
+  @Value("${file.storage-roots:}")
+  private List<String> storageRoots;
+
+  @Value("${file.shard-vnodes:128}")
+  private int shardVnodes;
+
+  /** Null unless sharded. */
+  private ShardRing ring;
+
+  @PostConstruct
+  void initShards() {
+    List<Path> roots = storageRoots == null ? List.of() : storageRoots.stream()
+      .filter(r -> !r.isBlank())
+      .map(r -> Path.of(r.trim()).toAbsolutePath().normalize())
+      .distinct()
+      .toList();
+    if (!roots.isEmpty()) {
+      ring = new ShardRing(roots, shardVnodes);
+      log.info("Sharded PDF storage over {} roots: {}", roots.size(), roots);
+    }
+  }
+
+  /** Returns a file:// URI to the stored file. */
+  @Override
+  public String savePdf(MultipartFile file, String objectKey) throws IOException {
+    return save(file, dest -> file.transferTo(dest.toFile()), objectKey);
+  }
+
+  /** The file is moved (a rename when it is on the same file system as the store). */
+  @Override
+  public String savePdf(Path file, String objectKey) throws IOException {
+    return save(new FileSystemResource(file), dest -> move(file, dest), objectKey);
+  }
+
+  /** Written once: straight to its file, or to {@code .incoming} and renamed onto its blob. */
+  @Override
+  public String savePdf(InputStream content, String objectKey) throws IOException {
+    if (!contentAddressed) {
+      Path dest = destination(objectKey);
+      try {
+        Files.copy(content, dest);
+      } catch (IOException | RuntimeException e) {
+        Files.deleteIfExists(dest);
+        throw e;
+      }
+      return locator(objectKey, dest);
+    }
+
+    // a rename onto the blob when both are on one file system; move() copies when a shard root is on another volume
+    Path incoming = Path.of(root, ".incoming", UUID.randomUUID() + ".part").toAbsolutePath();
+    Files.createDirectories(incoming.getParent());
+    try {
+      ContentHash.Hashing in = new ContentHash.Hashing(content);
+      Files.copy(in, incoming);
+      return storeBlob(in.result(), part -> move(incoming, part));
+    } finally {
+      Files.deleteIfExists(incoming);
+    }
+  }
+
+  private String save(InputStreamSource content, Transfer transfer, String objectKey) throws IOException {
+    if (contentAddressed) {
+      return storeBlob(ContentHash.of(content), transfer);
+    }
+    Path dest = destination(objectKey);
+    transfer.to(dest);
+    return locator(objectKey, dest); // e.g., file:///.../2025-10/uuid.pdf
+  }
+
+  private Path destination(String objectKey) throws IOException {
+    if (ring != null) {
+      Path dest = ring.owner(objectKey).resolve(objectKey);
+      Files.createDirectories(dest.getParent());
+      return dest;
+    }
+    File base = new File(root);
+    if (!base.exists() && !base.mkdirs()) {
+      throw new IOException("Cannot create storage root: " + base.getAbsolutePath());
+    }
+    File dest = new File(base, objectKey);
+    if (dest.getParentFile() != null && !dest.getParentFile().exists()) {
+      if (!dest.getParentFile().mkdirs()) {
+        throw new IOException("Cannot create dir: " + dest.getParentFile());
+      }
+    }
+    return dest.toPath();
+  }
+
+  /** A blob is deleted with its last reference. */
+  @Override
+  public void release(String locator) throws IOException {
+    String sha256 = blobHashOf(locator);
+    if (sha256 == null) {
+      return;
+    }
+    synchronized (lockFor(sha256)) {
+      blobs.addReferences(sha256, -1);
+      StoredBlob blob = blobs.findById(sha256).orElse(null);
+      if (blob != null && blob.getRefCount() <= 0) {
+        blobs.delete(blob);
+        Files.deleteIfExists(blobPath(sha256));
+      }
+    }
+  }
+
+  @Override
+  public StoredFile open(String locator) throws IOException {
+    Path path;
+    if (locator != null && locator.startsWith(SHARD_SCHEME)) {
+      path = ring != null ? find(locator.substring(SHARD_SCHEME.length())) : null;
+    } else if (locator != null && locator.startsWith("file:")) {
+      path = fileLocatorPath(locator);
+    } else {
+      return null;
+    }
+    if (path == null || !Files.isRegularFile(path)) {
+      return null;
+    }
+    // never serve anything outside the store, whatever ended up in file_path
+    Path real = path.toRealPath();
+    if (!withinStore(real)) {
+      return null;
+    }
+    BasicFileAttributes attrs = Files.readAttributes(real, BasicFileAttributes.class);
+    return new LocalFile(real, attrs.size(), attrs.lastModifiedTime().toMillis());
+  }
+
+  /** Adds a reference to the blob for {@code hash}, writing it with {@code transfer} if it is new. */
+  private String storeBlob(ContentHash hash, Transfer transfer) throws IOException {
+    String sha256 = hash.sha256();
+    long size = hash.size();
+    Path dest = blobPath(sha256);
+    String locator = locator(ContentHash.blobKey(sha256), dest);
+
+    synchronized (lockFor(sha256)) {
+      if (!Files.exists(dest)) {
+        // write beside the final name and rename, so a blob is never seen half-written
+        Files.createDirectories(dest.getParent());
+        Path part = dest.resolveSibling(sha256 + "." + UUID.randomUUID() + ".part");
+        try {
+          transfer.to(part);
+          Files.move(part, dest, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+          Files.deleteIfExists(part);
+        }
+      }
+      if (blobs.addReferences(sha256, 1) == 0) {
+        blobs.save(StoredBlob.builder()
+          .sha256(sha256)
+          .sizeBytes(size)
+          .locator(locator)
+          .refCount(1)
+          .createdAt(Instant.now())
+          .build());
+      }
+    }
+    return locator;
+  }
+
+  private static void move(Path from, Path to) throws IOException {
+    try {
+      Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Sharded mode: moves every stored PDF that is not on the root the ring now
+   * assigns it (e.g. after a root was added) onto that root. Safe while serving:
+   * each file is copied beside its target, flushed and renamed into place before
+   * the original goes, and blobs move under their hash lock. Returns counts.
+   */
+  public synchronized Map<String, Object> rebalance() throws IOException {
+    if (ring == null) {
+      throw new IllegalStateException("Storage is not sharded (file.storage-roots is empty)");
+    }
+    // list every root before moving anything, so a moved file is not visited twice
+    Map<Path, Path> rootOf = new LinkedHashMap<>();
+    for (Path from : ring.roots()) {
+      if (Files.isDirectory(from)) {
+        try (Stream<Path> walk = Files.walk(from)) {
+          walk.filter(Files::isRegularFile).forEach(file -> rootOf.put(file, from));
+        }
+      }
+    }
+    long scanned = 0, moved = 0, duplicates = 0, failed = 0;
+    for (Map.Entry<Path, Path> entry : rootOf.entrySet()) {
+      Path file = entry.getKey(), from = entry.getValue();
+      String key = from.relativize(file).toString().replace(File.separatorChar, '/');
+      if (key.startsWith(".") || key.endsWith(".part")) {
+        continue; // work files, or a write still in progress
+      }
+      scanned++;
+      Path owner = ring.owner(key);
+      if (!owner.equals(from)) {
+        try {
+          String sha256 = blobHashOfKey(key);
+          boolean copied;
+          if (sha256 != null) {
+            synchronized (lockFor(sha256)) {
+              copied = relocate(file, owner.resolve(key));
+            }
+          } else {
+            copied = relocate(file, owner.resolve(key));
+          }
+          if (copied) moved++; else duplicates++;
+        } catch (IOException e) {
+          failed++;
+          log.warn("Could not move {} to {}: {}", file, owner, e.getMessage());
+        }
+      }
+    }
+    log.info("Storage rebalance: {} files scanned, {} moved, {} duplicates removed, {} failed",
+      scanned, moved, duplicates, failed);
+    return Map.of("scanned", scanned, "moved", moved, "duplicatesRemoved", duplicates, "failed", failed);
+  }
+
+  /** Copies {@code from} to {@code to} durably, then deletes it; false if {@code to} already existed. */
+  private static boolean relocate(Path from, Path to) throws IOException {
+    if (!Files.exists(from)) {
+      return false; // released meanwhile
+    }
+    if (Files.exists(to)) {
+      Files.delete(from);
+      return false;
+    }
+    Files.createDirectories(to.getParent());
+    Path part = to.resolveSibling(to.getFileName() + "." + UUID.randomUUID() + ".part");
+    try {
+      Files.copy(from, part, StandardCopyOption.COPY_ATTRIBUTES);
+      try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(part, to, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(part);
+    }
+    Files.delete(from);
+    return true;
+  }
+
+  private Path blobPath(String sha256) {
+    String key = ContentHash.blobKey(sha256);
+    if (ring != null) {
+      Path existing = find(key);
+      return existing != null ? existing : ring.owner(key).resolve(key);
+    }
+    return Path.of(root).resolve(key).toAbsolutePath();
+  }
+
+  /** Sharded: where {@code key} is, trying its ring owner first, or null if on no root. */
+  private Path find(String key) {
+    Path owner = ring.owner(key);
+    Path path = owner.resolve(key);
+    if (Files.exists(path)) {
+      return path;
+    }
+    for (Path other : ring.roots()) {
+      if (!other.equals(owner) && Files.exists(path = other.resolve(key))) {
+        return path;
+      }
+    }
+    // written before sharding was switched on
+    path = Path.of(root).toAbsolutePath().resolve(key);
+    return Files.exists(path) ? path : null;
+  }
+
+  /**
+   * The path of a file:// locator. When sharded, a file under file.storage-root
+   * that is no longer there (rebalanced away after the root was listed in
+   * file.storage-roots) is looked up by its key on the shard roots.
+   */
+  private Path fileLocatorPath(String locator) {
+    Path path = Path.of(URI.create(locator)).normalize();
+    if (ring != null && !Files.exists(path)) {
+      Path base = Path.of(root).toAbsolutePath().normalize();
+      if (path.startsWith(base)) {
+        Path moved = find(base.relativize(path).toString().replace(File.separatorChar, '/'));
+        if (moved != null) {
+          return moved;
+        }
+      }
+    }
+    return path;
+  }
+
+  private String locator(String key, Path path) {
+    return ring != null ? SHARD_SCHEME + key : path.toUri().toString();
+  }
+
+  private boolean withinStore(Path real) throws IOException {
+    Path base = Path.of(root);
+    if (Files.exists(base) && real.startsWith(base.toRealPath())) {
+      return true;
+    }
+    if (ring != null) {
+      for (Path shard : ring.roots()) {
+        if (Files.exists(shard) && real.startsWith(shard.toRealPath())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** The hash when {@code locator} is a blob of this store, else null. */
+  private String blobHashOf(String locator) {
+    if (locator != null && locator.startsWith(SHARD_SCHEME)) {
+      return blobHashOfKey(locator.substring(SHARD_SCHEME.length()));
+    }
+    if (locator == null || !locator.startsWith("file:")) {
+      return null;
+    }
+    // by name only, so a blob rebalanced off file.storage-root is still released (blobPath finds it)
+    Path path = Path.of(URI.create(locator)).normalize();
+    String sha256 = ContentHash.fromBlobName(path.getFileName().toString());
+    return sha256 != null && path.equals(Path.of(root).resolve(ContentHash.blobKey(sha256)).toAbsolutePath().normalize())
+      ? sha256 : null;
+  }
+
+  private static String blobHashOfKey(String key) {
+    String sha256 = ContentHash.fromBlobName(key.substring(key.lastIndexOf('/') + 1));
+    return sha256 != null && key.equals(ContentHash.blobKey(sha256)) ? sha256 : null;
+  }
+
+  private Object lockFor(String sha256) {
+    return locks[Integer.parseInt(sha256.substring(0, 2), 16) % locks.length];
+  }
+
+  private static Object[] newLocks(int n) {
+    Object[] out = new Object[n];
+    for (int i = 0; i < n; i++) {
+      out[i] = new Object();
+    }
+    return out;
+  }
+
+  /** Puts the upload's bytes at a path. */
+  @FunctionalInterface
+  private interface Transfer {
+    void to(Path dest) throws IOException;
+  }
+
+  private record LocalFile(Path localPath, long length, long lastModified) implements StoredFile {
+
+    @Override
+    public String version() {
+      return Long.toHexString(length) + "-" + Long.toHexString(lastModified);
+    }
+
+    @Override
+    public InputStream openRange(long start, long endInclusive) throws IOException {
+      FileChannel channel = FileChannel.open(localPath, StandardOpenOption.READ).position(start);
+      return new RangeInputStream(Channels.newInputStream(channel), endInclusive - start + 1);
+    }
+  }
+
+  /** Stops after {@code left} bytes. */
+  private static final class RangeInputStream extends FilterInputStream {
+    private long left;
+
+    RangeInputStream(InputStream in, long length) {
+      super(in);
+      this.left = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (left <= 0) return -1;
+      int b = super.read();
+      if (b >= 0) left--;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      if (left <= 0) return -1;
+      int n = super.read(buf, off, (int) Math.min(len, left));
+      if (n > 0) left -= n;
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(Math.min(n, left));
+      left -= skipped;
+      return skipped;
+    }
+  }
+}
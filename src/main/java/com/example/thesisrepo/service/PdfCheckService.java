@@ -1,16 +1,487 @@
 package com.example.thesisrepo.service;
 
+import com.example.thesisrepo.thesis.ChecklistItem;
+import com.example.thesisrepo.thesis.ChecklistItemRepository;
+import com.example.thesisrepo.thesis.PdfCheck;
+import com.example.thesisrepo.thesis.PdfCheckRepository;
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisChecklist;
+import com.example.thesisrepo.thesis.ThesisChecklistRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.graphics.optionalcontent.PDOptionalContentGroup;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.apache.pdfbox.util.Matrix;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * Automated format checks behind the library checklist (watermark, font,
+ * title, signature). Results are written to {@link ThesisChecklist} as
+ * suggestions; ticking an item stays the librarian's call.
+ *
+ * The PDF is read in page ranges on {@code pdfCheckExecutor}, each range with
+ * its own {@link PDDocument} (PDFBox documents are not thread-safe). What was
+ * read is kept in {@link PdfCheck} by content hash, so an unchanged
+ * re-submission costs one row lookup. The rules that depend on the thesis
+ * title or on {@code pdf-check.*} settings are applied on top of those facts
+ * every time, so the cache never goes stale.
+ */
+@Slf4j
 @Service
 public class PdfCheckService {
 
-    /**
-     * Legacy stub method – always returns false and does not read the file.
-     */
-    public boolean containsText(File pdf, String needle) {
-        return false;
+  /** Bump when what is read from a PDF changes, so cached facts are read again. */
+  static final int VERSION = 1;
+
+  public static final String WATERMARK = "watermark";
+  public static final String FONT = "font";
+  public static final String TITLE = "title";
+  public static final String SIGNATURE = "signature";
+
+  private static final int PAGES_PER_RANGE = 8;
+  private static final int NOTE_LENGTH = 500;
+  // Word and Acrobat wrap watermarks in /Artifact <</Subtype /Watermark>> BDC
+  private static final COSName MARKED_WATERMARK = COSName.getPDFName("Watermark");
+
+  /** One checklist suggestion. */
+  public record Finding(String key, String label, boolean passed, String note) {}
+
+  private final PdfCheckRepository checks;
+  private final ThesisChecklistRepository tchecks;
+  private final ChecklistItemRepository items;
+  private final StorageService storage;
+  private final ThreadPoolTaskExecutor executor;
+  private final List<String> allowedFonts;
+  private final String watermarkText;
+  private final List<String> approvalKeywords;
+
+  public PdfCheckService(PdfCheckRepository checks,
+                         ThesisChecklistRepository tchecks,
+                         ChecklistItemRepository items,
+                         StorageService storage,
+                         @Qualifier("pdfCheckExecutor") ThreadPoolTaskExecutor executor,
+                         @Value("${pdf-check.fonts:}") List<String> allowedFonts,
+                         @Value("${pdf-check.watermark-text:}") String watermarkText,
+                         @Value("${pdf-check.approval-keywords:approval,approved by,pengesahan,persetujuan}")
+                         List<String> approvalKeywords) {
+    this.checks = checks;
+    this.tchecks = tchecks;
+    this.items = items;
+    this.storage = storage;
+    this.executor = executor;
+    this.allowedFonts = clean(allowedFonts);
+    this.watermarkText = watermarkText.trim().toLowerCase(Locale.ROOT);
+    this.approvalKeywords = clean(approvalKeywords).stream().map(k -> k.toLowerCase(Locale.ROOT)).toList();
+  }
+
+  /** Runs every check against the thesis PDF; nothing is saved to the checklist. */
+  public List<Finding> check(Thesis thesis) throws IOException {
+    PdfCheck facts = facts(thesis.getFilePath());
+    return List.of(
+      watermark(facts),
+      font(facts),
+      title(facts, thesis.getTitle()),
+      signature(facts));
+  }
+
+  /**
+   * Records {@code findings} as the suggested ticks of the thesis checklist.
+   * Only the suggestion columns are updated; a row (unchecked) is inserted
+   * where the librarian has none yet, and if the librarian's save creates it
+   * first, the update is simply retried. Whatever the librarian ticked is left alone.
+   */
+  public void suggest(Thesis thesis, List<Finding> findings) {
+    for (Finding f : findings) {
+      ChecklistItem item = item(f);
+      if (tchecks.suggest(thesis.getId(), item.getId(), f.passed(), f.note()) > 0) {
+        continue;
+      }
+      try {
+        tchecks.saveAndFlush(ThesisChecklist.builder()
+          .thesis(thesis)
+          .item(item)
+          .suggested(f.passed())
+          .suggestionNote(f.note())
+          .build());
+      } catch (DataIntegrityViolationException e) {
+        // uq_thesis_checklist_pair: inserted concurrently
+        tchecks.suggest(thesis.getId(), item.getId(), f.passed(), f.note());
+      }
+    }
+  }
+
+  private ChecklistItem item(Finding f) {
+    return items.findByKey(f.key()).orElseGet(() -> {
+      try {
+        return items.saveAndFlush(ChecklistItem.builder().key(f.key()).label(f.label()).build());
+      } catch (DataIntegrityViolationException e) {
+        return items.findByKey(f.key()).orElseThrow();
+      }
+    });
+  }
+
+  /** The facts for the PDF at {@code locator}, read only if this content was never checked. */
+  PdfCheck facts(String locator) throws IOException {
+    // content-addressed locators carry the hash, so a cache hit does not even open the file
+    String sha256 = ContentHash.fromBlobName(locator.substring(locator.lastIndexOf('/') + 1));
+    Optional<PdfCheck> cached = cached(sha256);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    try (LocalPdf pdf = LocalPdf.open(storage, locator)) {
+      if (sha256 == null) {
+        sha256 = ContentHash.of(() -> Files.newInputStream(pdf.path())).sha256();
+        cached = cached(sha256);
+        if (cached.isPresent()) {
+          return cached.get();
+        }
+      }
+      return checks.save(read(pdf.path(), sha256));
+    }
+  }
+
+  private Optional<PdfCheck> cached(String sha256) {
+    return sha256 == null ? Optional.empty() : checks.findById(sha256).filter(c -> c.getVersion() == VERSION);
+  }
+
+  private PdfCheck read(Path file, String sha256) throws IOException {
+    long started = System.nanoTime();
+    int pages;
+    try (PDDocument doc = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+      pages = doc.getNumberOfPages();
+    }
+    int ranges = Math.max(1, Math.min(executor.getMaxPoolSize(), (pages + PAGES_PER_RANGE - 1) / PAGES_PER_RANGE));
+    int perRange = Math.max(1, (pages + ranges - 1) / ranges);
+
+    List<CompletableFuture<List<PageFacts>>> parts = new ArrayList<>();
+    for (int from = 0; from < pages; from += perRange) {
+      int start = from, end = Math.min(pages, from + perRange);
+      parts.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return readRange(file, start, end);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, executor));
+    }
+    List<PageFacts> facts = new ArrayList<>(pages);
+    try {
+      for (CompletableFuture<List<PageFacts>> part : parts) {
+        facts.addAll(part.join());
+      }
+    } catch (CompletionException e) {
+      parts.forEach(p -> p.cancel(true));
+      if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      throw e;
+    }
+
+    Map<String, Boolean> fonts = new TreeMap<>();
+    facts.forEach(p -> p.fonts().forEach((name, embedded) -> fonts.merge(name, embedded, Boolean::logicalAnd)));
+    Integer approvalPage = null, signaturePage = null;
+    int watermarkPages = 0;
+    for (int i = 0; i < facts.size(); i++) {
+      PageFacts p = facts.get(i);
+      if (p.watermark()) watermarkPages++;
+      if (p.approval() && approvalPage == null) approvalPage = i + 1;
+      if (((p.approval() && p.signatureMark()) || p.signedField()) && signaturePage == null) signaturePage = i + 1;
+    }
+    log.info("Format-checked {} pages of {} in {} ranges, {} ms", pages, sha256, parts.size(),
+      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+    return PdfCheck.builder()
+      .sha256(sha256)
+      .version(VERSION)
+      .pageCount(pages)
+      .fonts(fonts.keySet().stream().map(PdfCheckService::family).distinct().collect(Collectors.joining("\n")))
+      .unembeddedFonts(fonts.entrySet().stream().filter(e -> !e.getValue()).map(Map.Entry::getKey)
+        .collect(Collectors.joining("\n")))
+      .watermarkPages(watermarkPages)
+      .titleText(facts.isEmpty() ? null : facts.get(0).titleText())
+      .approvalPage(approvalPage)
+      .signaturePage(signaturePage)
+      .checkedAt(Instant.now())
+      .build();
+  }
+
+  private List<PageFacts> readRange(Path file, int from, int to) throws IOException {
+    try (PDDocument doc = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+      List<PageFacts> facts = new ArrayList<>(to - from);
+      for (int i = from; i < to; i++) {
+        facts.add(readPage(doc, i));
+      }
+      return facts;
+    }
+  }
+
+  private PageFacts readPage(PDDocument doc, int index) throws IOException {
+    PDPage page = doc.getPage(index);
+    PageText text = new PageText(index == 0);
+    text.setStartPage(index + 1);
+    text.setEndPage(index + 1);
+    text.writeText(doc, Writer.nullWriter());
+    String lower = text.text.toString().toLowerCase(Locale.ROOT);
+
+    Map<String, Boolean> fonts = new HashMap<>();
+    boolean image = scanResources(page.getResources(), fonts, new HashSet<>());
+    boolean mark = image, signed = false, watermark = false;
+    for (PDAnnotation a : page.getAnnotations()) {
+      switch (String.valueOf(a.getSubtype())) {
+        case "Ink", "Stamp" -> mark = true;
+        case "Widget" -> signed |= signedField(a.getCOSObject());
+        case "Watermark" -> watermark = true;
+        default -> { }
+      }
+    }
+    watermark = watermark
+      || text.diagonalGlyphs >= 5
+      || (!watermarkText.isEmpty() && lower.contains(watermarkText))
+      || watermarkLayer(page.getResources())
+      || markedWatermark(page);
+
+    return new PageFacts(
+      fonts,
+      watermark,
+      approvalKeywords.stream().anyMatch(lower::contains),
+      mark,
+      signed,
+      index == 0 ? text.centredLines(page.getCropBox()) : null);
+  }
+
+  /** Fonts used (by name, embedded or not) and whether an image is drawn, following form XObjects. */
+  private static boolean scanResources(PDResources resources, Map<String, Boolean> fonts, Set<COSBase> seen)
+      throws IOException {
+    if (resources == null || !seen.add(resources.getCOSObject())) {
+      return false;
+    }
+    for (COSName name : resources.getFontNames()) {
+      PDFont font = resources.getFont(name);
+      if (font != null) {
+        String fontName = font.getName() != null ? font.getName() : name.getName();
+        fonts.merge(fontName.replaceFirst("^[A-Z]{6}\\+", ""), font.isEmbedded(), Boolean::logicalAnd);
+      }
+    }
+    boolean image = false;
+    for (COSName name : resources.getXObjectNames()) {
+      var xobject = resources.getXObject(name);
+      if (xobject instanceof PDImageXObject) {
+        image = true;
+      } else if (xobject instanceof PDFormXObject form) {
+        image |= scanResources(form.getResources(), fonts, seen);
+      }
+    }
+    return image;
+  }
+
+  private static boolean watermarkLayer(PDResources resources) {
+    if (resources == null) {
+      return false;
+    }
+    for (COSName name : resources.getPropertiesNames()) {
+      if (resources.getProperties(name) instanceof PDOptionalContentGroup group
+          && group.getName() != null
+          && group.getName().toLowerCase(Locale.ROOT).contains("watermark")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean markedWatermark(PDPage page) throws IOException {
+    PDFStreamParser parser = new PDFStreamParser(page);
+    for (Object token = parser.parseNextToken(); token != null; token = parser.parseNextToken()) {
+      if (token instanceof COSDictionary properties && MARKED_WATERMARK.equals(properties.getCOSName(COSName.SUBTYPE))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether the widget belongs to a signature field that has been signed. */
+  private static boolean signedField(COSDictionary widget) {
+    COSDictionary d = widget;
+    for (int depth = 0; d != null && depth < 8; depth++, d = d.getCOSDictionary(COSName.PARENT)) {
+      if (COSName.SIG.equals(d.getCOSName(COSName.FT))) {
+        return d.getDictionaryObject(COSName.V) != null;
+      }
+    }
+    return false;
+  }
+
+  private Finding watermark(PdfCheck facts) {
+    int pages = facts.getPageCount(), marked = facts.getWatermarkPages();
+    boolean passed = marked > 0 && marked * 2 >= pages;
+    String note = marked == 0 ? "No watermark found"
+      : "Watermark on " + (passed ? "" : "only ") + marked + " of " + pages + " pages";
+    return new Finding(WATERMARK, "Watermark present", passed, note);
+  }
+
+  private Finding font(PdfCheck facts) {
+    List<String> fonts = lines(facts.getFonts());
+    List<String> unembedded = lines(facts.getUnembeddedFonts());
+    List<String> outside = fonts.stream().filter(f -> !allowedFont(f)).toList();
+    if (fonts.isEmpty()) {
+      return new Finding(FONT, "Correct font", false, "No fonts found (scanned pages?)");
+    }
+    if (!unembedded.isEmpty()) {
+      return new Finding(FONT, "Correct font", false, note("Fonts not embedded: " + String.join(", ", unembedded)));
+    }
+    if (!outside.isEmpty()) {
+      return new Finding(FONT, "Correct font", false,
+        note("Fonts other than " + String.join(", ", allowedFonts) + ": " + String.join(", ", outside)));
+    }
+    return new Finding(FONT, "Correct font", true, note("All fonts embedded: " + String.join(", ", fonts)));
+  }
+
+  private Finding title(PdfCheck facts, String title) {
+    String centred = normalize(facts.getTitleText());
+    String wanted = normalize(title);
+    if (centred.isEmpty()) {
+      return new Finding(TITLE, "Title formatting correct", false, "No centred text in the upper part of page 1");
+    }
+    if (wanted.isEmpty() || !centred.contains(wanted)) {
+      return new Finding(TITLE, "Title formatting correct", false, "Thesis title not among the centred lines of page 1");
+    }
+    return new Finding(TITLE, "Title formatting correct", true, "Title centred on page 1");
+  }
+
+  private Finding signature(PdfCheck facts) {
+    if (facts.getSignaturePage() != null) {
+      return new Finding(SIGNATURE, "Supervisor signature present", true,
+        "Signature on page " + facts.getSignaturePage());
+    }
+    String note = facts.getApprovalPage() != null
+      ? "Approval page " + facts.getApprovalPage() + " has no signature image, ink or signed field"
+      : "No approval page found";
+    return new Finding(SIGNATURE, "Supervisor signature present", false, note);
+  }
+
+  private boolean allowedFont(String family) {
+    if (allowedFonts.isEmpty()) {
+      return true;
+    }
+    String key = fontKey(family);
+    return allowedFonts.stream().anyMatch(a -> key.startsWith(fontKey(a)));
+  }
+
+  /** "TimesNewRomanPS-BoldMT" and "Times New Roman,Bold" both give their family. */
+  private static String family(String fontName) {
+    int style = fontName.indexOf(',');
+    if (style < 0) style = fontName.indexOf('-');
+    return style > 0 ? fontName.substring(0, style) : fontName;
+  }
+
+  private static String fontKey(String name) {
+    return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "").replaceAll("(psmt|mt|ps)$", "");
+  }
+
+  private static String normalize(String s) {
+    return s == null ? "" : s.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+  }
+
+  private static List<String> lines(String s) {
+    return s == null || s.isEmpty() ? List.of() : List.of(s.split("\n"));
+  }
+
+  private static List<String> clean(List<String> values) {
+    return values == null ? List.of() : values.stream().map(String::trim).filter(v -> !v.isEmpty()).toList();
+  }
+
+  private static String note(String s) {
+    return s.length() <= NOTE_LENGTH ? s : s.substring(0, NOTE_LENGTH - 1) + "…";
+  }
+
+  private record PageFacts(Map<String, Boolean> fonts,
+                           boolean watermark,
+                           boolean approval,
+                           boolean signatureMark,
+                           boolean signedField,
+                           String titleText) {}
+
+  /** Text of one page: words for the keyword checks, diagonal glyphs, and (page 1) its lines. */
+  private static final class PageText extends PDFTextStripper {
+    private final boolean collectLines;
+    private final StringBuilder text = new StringBuilder();
+    private final List<Line> lines = new ArrayList<>();
+    private int diagonalGlyphs;
+
+    PageText(boolean collectLines) {
+      this.collectLines = collectLines;
+      setSortByPosition(collectLines);
+    }
+
+    @Override
+    protected void writeString(String string, List<TextPosition> glyphs) {
+      text.append(string).append(' ');
+      for (TextPosition g : glyphs) {
+        Matrix m = g.getTextMatrix();
+        double angle = Math.abs(Math.toDegrees(Math.atan2(m.getShearY(), m.getScaleX()))) % 90;
+        if (angle > 15 && angle < 75) diagonalGlyphs++;
+      }
+      if (collectLines && !glyphs.isEmpty()) {
+        TextPosition first = glyphs.get(0), last = glyphs.get(glyphs.size() - 1);
+        Line line = lines.isEmpty() ? null : lines.get(lines.size() - 1);
+        if (line == null || Math.abs(line.y - first.getYDirAdj()) > Math.max(1, line.size * 0.4f)) {
+          line = new Line(first.getYDirAdj(), first.getXDirAdj(), first.getFontSizeInPt());
+          lines.add(line);
+        }
+        line.text.append(string).append(' ');
+        line.maxX = Math.max(line.maxX, last.getXDirAdj() + last.getWidthDirAdj());
+      }
+    }
+
+    /** Lines centred on the page (within 8% of its width) in its upper 60%. */
+    String centredLines(PDRectangle box) {
+      float width = box.getWidth(), height = box.getHeight();
+      String centred = lines.stream()
+        .filter(l -> l.y < height * 0.6f && Math.abs((l.minX + l.maxX) / 2 - width / 2) <= width * 0.08f)
+        .map(l -> l.text.toString().trim())
+        .filter(s -> !s.isEmpty())
+        .collect(Collectors.joining("\n"));
+      return centred.length() <= 4000 ? centred : centred.substring(0, 4000);
+    }
+  }
+
+  private static final class Line {
+    final StringBuilder text = new StringBuilder();
+    final float y, minX, size;
+    float maxX;
+
+    Line(float y, float minX, float size) {
+      this.y = y;
+      this.minX = minX;
+      this.maxX = minX;
+      this.size = size;
     }
+  }
 }
@@ -0,0 +1,193 @@
+package com.example.thesisrepo.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Rendered thesis preview images (JPEG) on disk under
+ * {@code <file.storage-root>/.previews/<thesisId>/}, kept to
+ * {@code previews.cache-size} bytes by evicting the least recently served.
+ *
+ * Recency is tracked in memory and mirrored to the files' modification time,
+ * so the order survives a restart (the directory is scanned on startup).
+ * An evicted image is simply rendered again by the PREVIEW processing stage.
+ *
+ * With several nodes, {@code previews.dir} must be one directory they all
+ * share: the PREVIEW job runs on whichever node claims it, and an image found
+ * on disk that this node has not indexed yet is adopted on first use. Each
+ * node still enforces the size limit from its own index, so the directory can
+ * briefly hold more than {@code previews.cache-size}.
+ */
+@Slf4j
+@Component
+public class PreviewCache {
+
+  private final Path dir;
+  private final long maxBytes;
+
+  // relative key -> size, least recently used first
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalBytes;
+
+  public PreviewCache(@Value("${file.storage-root:${user.home}/Documents/ThesisRepo/uploads}") String root,
+                      @Value("${previews.dir:}") String previewDir,
+                      @Value("${previews.cache-size:1GB}") DataSize maxSize) {
+    this.dir = (previewDir.isBlank() ? Path.of(root, ".previews") : Path.of(previewDir)).toAbsolutePath();
+    this.maxBytes = maxSize.toBytes();
+  }
+
+  public static String thumbnailKey(Long thesisId) {
+    return thesisId + "/thumb.jpg";
+  }
+
+  public static String pageKey(Long thesisId, int page) {
+    return thesisId + "/page-" + page + ".jpg";
+  }
+
+  @PostConstruct
+  void load() throws IOException {
+    Files.createDirectories(dir);
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.filter(p -> p.toString().endsWith(".jpg"))
+        .map(p -> {
+          try {
+            return Map.entry(p, Files.readAttributes(p, BasicFileAttributes.class));
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        })
+        .sorted(Comparator.comparing(e -> e.getValue().lastModifiedTime()))
+        .forEach(e -> add(dir.relativize(e.getKey()).toString(), e.getValue().size()));
+    }
+    evict();
+    log.info("Preview cache: {} images, {} bytes", entries.size(), totalBytes);
+  }
+
+  /** Whether {@code key} is cached, without counting as a use. */
+  public boolean contains(String key) {
+    synchronized (entries) {
+      if (entries.containsKey(key)) {
+        return true;
+      }
+    }
+    return adopt(key);
+  }
+
+  /** The cached image, marked as just used, or null if it is not (or no longer) cached. */
+  public Path get(String key) {
+    boolean known;
+    synchronized (entries) {
+      known = entries.get(key) != null;
+    }
+    if (!known && !adopt(key)) {
+      return null;
+    }
+    Path file = dir.resolve(key);
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      forget(key); // deleted behind our back
+      return null;
+    }
+    return file;
+  }
+
+  /** Stores {@code image} as {@code key}, evicting older images to stay within the size limit. */
+  public void put(String key, RenderedImage image) throws IOException {
+    Path file = dir.resolve(key);
+    Files.createDirectories(file.getParent());
+    // write beside the final name and rename, so readers never see a half-written image
+    Path part = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".part");
+    try {
+      if (!ImageIO.write(image, "jpg", part.toFile())) {
+        throw new IOException("No JPEG writer available");
+      }
+      try {
+        Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(part);
+    }
+    synchronized (entries) {
+      forget(key);
+      add(key, Files.size(file));
+    }
+    evict();
+  }
+
+  /** Indexes an image that is on disk but not in the index (rendered by another node); false if there is none. */
+  private boolean adopt(String key) {
+    long size;
+    try {
+      size = Files.size(dir.resolve(key));
+    } catch (IOException e) {
+      return false;
+    }
+    synchronized (entries) {
+      if (!entries.containsKey(key)) {
+        add(key, size);
+      }
+    }
+    evict();
+    return true;
+  }
+
+  private void add(String key, long size) {
+    synchronized (entries) {
+      entries.put(key, size);
+      totalBytes += size;
+    }
+  }
+
+  private void forget(String key) {
+    synchronized (entries) {
+      Long size = entries.remove(key);
+      if (size != null) {
+        totalBytes -= size;
+      }
+    }
+  }
+
+  private void evict() {
+    while (true) {
+      String victim;
+      synchronized (entries) {
+        if (totalBytes <= maxBytes || entries.isEmpty()) {
+          return;
+        }
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        Map.Entry<String, Long> e = eldest.next();
+        victim = e.getKey();
+        totalBytes -= e.getValue();
+        eldest.remove();
+      }
+      try {
+        Files.deleteIfExists(dir.resolve(victim));
+      } catch (IOException e) {
+        log.warn("Could not delete evicted preview {}: {}", victim, e.getMessage());
+      }
+    }
+  }
+}
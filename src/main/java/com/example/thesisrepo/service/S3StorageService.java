@@ -0,0 +1,353 @@
+package com.example.thesisrepo.service;
+
+import com.example.thesisrepo.storage.StoredBlob;
+import com.example.thesisrepo.storage.StoredBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * PDF storage in an S3-compatible object store ({@code file.backend=s3}), so
+ * several app nodes can share one set of files. Locators are {@code s3://bucket/key}.
+ *
+ * Uploads above {@code file.s3.multipart-threshold} go up as a multipart upload
+ * whose parts are sent in parallel on {@code s3UploadExecutor}; only the parts in
+ * flight are held in memory. Downloads are ranged GETs streamed straight through.
+ *
+ * Content-addressed mode uses the same blob keys and {@link StoredBlob} counts
+ * as the local backend. Streamed uploads cannot be hashed before they are sent,
+ * so they go to a staging key under {@code incoming/} and are copied onto their
+ * blob key server-side (no second upload) unless that blob already exists.
+ * Objects are never deleted when their count drops to
+ * zero: another node may be about to reuse them, and the next identical upload
+ * simply takes the blob back.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "file.backend", havingValue = "s3")
+public class S3StorageService implements StorageService {
+
+  /** S3 rejects parts below 5 MB (except the last). */
+  private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
+  private final S3Client s3;
+  private final ThreadPoolTaskExecutor uploadExecutor;
+  private final StoredBlobRepository blobs;
+  private final String bucket;
+  private final boolean contentAddressed;
+  private final long multipartThreshold;
+  private final int partSize;
+
+  public S3StorageService(S3Client s3,
+                          @Qualifier("s3UploadExecutor") ThreadPoolTaskExecutor uploadExecutor,
+                          StoredBlobRepository blobs,
+                          @Value("${file.s3.bucket}") String bucket,
+                          @Value("${file.content-addressed:false}") boolean contentAddressed,
+                          @Value("${file.s3.multipart-threshold:16MB}") DataSize multipartThreshold,
+                          @Value("${file.s3.part-size:8MB}") DataSize partSize) {
+    this.s3 = s3;
+    this.uploadExecutor = uploadExecutor;
+    this.blobs = blobs;
+    this.bucket = bucket;
+    this.contentAddressed = contentAddressed;
+    this.multipartThreshold = multipartThreshold.toBytes();
+    this.partSize = (int) Math.max(partSize.toBytes(), MIN_PART_SIZE);
+  }
+
+  @Override
+  public String savePdf(MultipartFile file, String objectKey) throws IOException {
+    return save(file, file.getSize(), objectKey);
+  }
+
+  @Override
+  public String savePdf(Path file, String objectKey) throws IOException {
+    return save(new FileSystemResource(file), Files.size(file), objectKey);
+  }
+
+  @Override
+  public String savePdf(InputStream content, String objectKey) throws IOException {
+    try {
+      if (!contentAddressed) {
+        uploadStream(content, objectKey);
+        return locator(objectKey);
+      }
+
+      String staging = "incoming/" + UUID.randomUUID() + ".pdf";
+      try {
+        ContentHash.Hashing in = new ContentHash.Hashing(content);
+        uploadStream(in, staging);
+        ContentHash hash = in.result();
+        String key = ContentHash.blobKey(hash.sha256());
+        if (head(key) == null) {
+          s3.copyObject(b -> b.sourceBucket(bucket).sourceKey(staging).destinationBucket(bucket).destinationKey(key));
+        }
+        addReference(hash, locator(key));
+        return locator(key);
+      } finally {
+        try {
+          s3.deleteObject(b -> b.bucket(bucket).key(staging));
+        } catch (SdkException e) {
+          log.warn("Could not delete staged upload {}: {}", staging, e.getMessage());
+        }
+      }
+    } catch (SdkException e) {
+      throw new IOException("S3 upload failed: " + e.getMessage(), e);
+    }
+  }
+
+  private String save(InputStreamSource content, long size, String objectKey) throws IOException {
+    try {
+      if (!contentAddressed) {
+        upload(content, size, objectKey);
+        return locator(objectKey);
+      }
+
+      ContentHash hash = ContentHash.of(content);
+      String key = ContentHash.blobKey(hash.sha256());
+      if (head(key) == null) {
+        upload(content, size, key);
+      }
+      addReference(hash, locator(key));
+      return locator(key);
+    } catch (SdkException e) {
+      throw new IOException("S3 upload failed: " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void release(String locator) {
+    String key = keyOf(locator);
+    String sha256 = key == null ? null : ContentHash.fromBlobName(key.substring(key.lastIndexOf('/') + 1));
+    if (sha256 != null && key.equals(ContentHash.blobKey(sha256))) {
+      blobs.addReferences(sha256, -1);
+    }
+  }
+
+  @Override
+  public StoredFile open(String locator) throws IOException {
+    String key = keyOf(locator);
+    if (key == null) {
+      return null;
+    }
+    try {
+      HeadObjectResponse head = head(key);
+      return head == null ? null : new S3File(key, head.contentLength(), head.lastModified().toEpochMilli(),
+        head.eTag() == null ? "" : head.eTag().replace("\"", ""));
+    } catch (SdkException e) {
+      throw new IOException("S3 lookup failed: " + e.getMessage(), e);
+    }
+  }
+
+  private void upload(InputStreamSource content, long size, String key) throws IOException {
+    try (InputStream in = content.getInputStream()) {
+      if (size < multipartThreshold) {
+        s3.putObject(b -> b.bucket(bucket).key(key).contentType("application/pdf"),
+          RequestBody.fromInputStream(in, size));
+      } else {
+        uploadMultipart(in, key);
+      }
+    }
+  }
+
+  // length unknown: a stream that ends within the first part is one plain PUT
+  private void uploadStream(InputStream in, String key) throws IOException {
+    byte[] first = in.readNBytes(partSize);
+    if (first.length < partSize) {
+      s3.putObject(b -> b.bucket(bucket).key(key).contentType("application/pdf"), RequestBody.fromBytes(first));
+    } else {
+      uploadMultipart(new SequenceInputStream(new ByteArrayInputStream(first), in), key);
+    }
+  }
+
+  private void uploadMultipart(InputStream in, String key) throws IOException {
+    String uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(key).contentType("application/pdf")).uploadId();
+    try {
+      List<CompletedPart> parts = uploadParts(in, key, uploadId);
+      s3.completeMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+        .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+    } catch (IOException | RuntimeException e) {
+      try {
+        s3.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+      } catch (SdkException abortFailure) {
+        e.addSuppressed(abortFailure);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the upload sequentially, one part-sized buffer at a time, and sends the
+   * parts in parallel; at most one buffer per upload thread is alive at once.
+   * The first failed part stops the reading, and this only returns (or throws)
+   * once no part is still being sent, so an abort cannot race its own parts.
+   */
+  private List<CompletedPart> uploadParts(InputStream in, String key, String uploadId) throws IOException {
+    int permits = uploadExecutor.getMaxPoolSize();
+    Semaphore inFlight = new Semaphore(permits);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    List<CompletableFuture<CompletedPart>> pending = new ArrayList<>();
+    try {
+      for (int partNumber = 1; ; partNumber++) {
+        byte[] buf = in.readNBytes(partSize);
+        if (buf.length == 0) {
+          break;
+        }
+        inFlight.acquireUninterruptibly();
+        if (failure.get() != null) {
+          inFlight.release();
+          break; // reported below
+        }
+        int n = partNumber;
+        try {
+          pending.add(CompletableFuture.supplyAsync(() -> {
+            try {
+              if (failure.get() != null) {
+                throw new CancellationException("Skipped after an earlier part failed");
+              }
+              String etag = s3.uploadPart(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                  .partNumber(n).contentLength((long) buf.length),
+                RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buf), buf.length, "application/pdf")).eTag();
+              return CompletedPart.builder().partNumber(n).eTag(etag).build();
+            } catch (RuntimeException e) {
+              failure.compareAndSet(null, e);
+              throw e;
+            } finally {
+              inFlight.release();
+            }
+          }, uploadExecutor));
+        } catch (RuntimeException rejected) {
+          inFlight.release();
+          throw rejected;
+        }
+        if (buf.length < partSize) {
+          break;
+        }
+      }
+      CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+      if (failure.get() != null) {
+        throw failure.get();
+      }
+      return pending.stream()
+        .map(CompletableFuture::join)
+        .sorted(Comparator.comparingInt(CompletedPart::partNumber))
+        .toList();
+    } finally {
+      // stop parts that have not started, then wait until every submitted one let go of its permit
+      failure.compareAndSet(null, new CancellationException("Upload of " + key + " abandoned"));
+      inFlight.acquireUninterruptibly(permits);
+    }
+  }
+
+  // the insert loses when another node created the row first; count on that row instead
+  private void addReference(ContentHash hash, String locator) {
+    if (blobs.addReferences(hash.sha256(), 1) > 0) {
+      return;
+    }
+    try {
+      blobs.saveAndFlush(StoredBlob.builder()
+        .sha256(hash.sha256())
+        .sizeBytes(hash.size())
+        .locator(locator)
+        .refCount(1)
+        .createdAt(Instant.now())
+        .build());
+    } catch (DataIntegrityViolationException e) {
+      blobs.addReferences(hash.sha256(), 1);
+    }
+  }
+
+  private HeadObjectResponse head(String key) {
+    try {
+      return s3.headObject(b -> b.bucket(bucket).key(key));
+    } catch (S3Exception e) {
+      if (e.statusCode() == 404) {
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  private String locator(String key) {
+    return "s3://" + bucket + "/" + key;
+  }
+
+  /** Object key for a locator in this backend's bucket, else null. */
+  private String keyOf(String locator) {
+    String prefix = "s3://" + bucket + "/";
+    return locator != null && locator.startsWith(prefix) ? locator.substring(prefix.length()) : null;
+  }
+
+  private final class S3File implements StoredFile {
+    private final String key;
+    private final long length;
+    private final long lastModified;
+    private final String version;
+
+    S3File(String key, long length, long lastModified, String version) {
+      this.key = key;
+      this.length = length;
+      this.lastModified = lastModified;
+      this.version = version;
+    }
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public long lastModified() {
+      return lastModified;
+    }
+
+    @Override
+    public String version() {
+      return version;
+    }
+
+    @Override
+    public Path localPath() {
+      return null;
+    }
+
+    @Override
+    public InputStream openRange(long start, long endInclusive) throws IOException {
+      try {
+        return s3.getObject(b -> b.bucket(bucket).key(key).range("bytes=" + start + "-" + endInclusive));
+      } catch (SdkException e) {
+        throw new IOException("S3 read failed: " + e.getMessage(), e);
+      }
+    }
+  }
+}
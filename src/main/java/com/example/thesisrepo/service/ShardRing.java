@@ -0,0 +1,50 @@
+package com.example.thesisrepo.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring over the storage roots of sharded mode. Each root sits
+ * on the ring at {@code vnodes} points derived from its path, and an object
+ * key belongs to the root at the first point at or after the key's hash.
+ *
+ * Adding a root therefore only takes over the keys between its points and
+ * their predecessors (about 1/n of them); everything else stays put.
+ */
+final class ShardRing {
+
+  private final List<Path> roots;
+  private final NavigableMap<Long, Path> ring = new TreeMap<>();
+
+  ShardRing(List<Path> roots, int vnodes) {
+    if (roots.isEmpty()) {
+      throw new IllegalArgumentException("At least one storage root is required");
+    }
+    this.roots = List.copyOf(roots);
+    for (Path root : roots) {
+      for (int i = 0; i < vnodes; i++) {
+        ring.put(hash(root + "#" + i), root);
+      }
+    }
+  }
+
+  List<Path> roots() {
+    return roots;
+  }
+
+  /** The root that {@code key} (e.g. "blobs/ab/cd/<sha256>.pdf") belongs on. */
+  Path owner(String key) {
+    Map.Entry<Long, Path> e = ring.ceilingEntry(hash(key));
+    return (e != null ? e : ring.firstEntry()).getValue();
+  }
+
+  private static long hash(String s) {
+    byte[] digest = ContentHash.newDigest().digest(s.getBytes(StandardCharsets.UTF_8));
+    return ByteBuffer.wrap(digest).getLong();
+  }
+}
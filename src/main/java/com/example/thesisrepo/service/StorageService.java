@@ -1,34 +1,47 @@
 package com.example.thesisrepo.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 
-@Service
-public class StorageService {
+/**
+ * Where thesis PDFs live. {@code file.backend} picks the implementation:
+ *  - local (default): {@link LocalStorageService}, file:// locators under file.storage-root,
+ *    or shard:// locators spread over the file.storage-roots directories
+ *  - s3: {@link S3StorageService}, s3://bucket/key locators in an S3-compatible
+ *    object store that several app nodes can share
+ *
+ * Locators are what ends up in {@code Thesis.filePath}.
+ */
+public interface StorageService {
 
-  @Value("${file.storage-root:${user.home}/Documents/ThesisRepo/uploads}")
-  private String root;
+  /**
+   * Store an uploaded PDF under {@code objectKey} (e.g., "2025-10/uuid.pdf") and
+   * return its locator. In content-addressed mode ({@code file.content-addressed})
+   * the key is ignored, identical content is stored once, and each call adds a
+   * reference to be given back with {@link #release} if the thesis is not saved.
+   */
+  String savePdf(MultipartFile file, String objectKey) throws IOException;
 
   /**
-   * Save a PDF to local storage under the provided objectKey (e.g., "2025-10/uuid.pdf")
-   * Returns a file:// URI to the stored file.
+   * Same for a complete PDF already on local disk (e.g. an assembled resumable
+   * upload). The file may be moved into the store; the caller deletes it if it
+   * is still there afterwards.
    */
-  public String savePdf(MultipartFile file, String objectKey) throws IOException {
-    File base = new File(root);
-    if (!base.exists() && !base.mkdirs()) {
-      throw new IOException("Cannot create storage root: " + base.getAbsolutePath());
-    }
-    File dest = new File(base, objectKey);
-    if (dest.getParentFile() != null && !dest.getParentFile().exists()) {
-      if (!dest.getParentFile().mkdirs()) {
-        throw new IOException("Cannot create dir: " + dest.getParentFile());
-      }
-    }
-    file.transferTo(dest);
-    return dest.toURI().toString(); // e.g., file:///.../2025-10/uuid.pdf
-  }
+  String savePdf(Path file, String objectKey) throws IOException;
+
+  /**
+   * Same for a PDF arriving as a stream of unknown length (e.g. a multipart part
+   * read straight off the request). It is written in a single pass, hashed and
+   * counted on the way through, so it is never spooled to a temp file first.
+   */
+  String savePdf(InputStream content, String objectKey) throws IOException;
+
+  /** Drop one reference to a content-addressed PDF; other locators are left alone. */
+  void release(String locator) throws IOException;
+
+  /** The stored PDF behind {@code locator}, or null when it is not ours or is gone. */
+  StoredFile open(String locator) throws IOException;
 }
@@ -0,0 +1,23 @@
+package com.example.thesisrepo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/** A PDF in the store, as needed for downloads and text extraction. */
+public interface StoredFile {
+
+  long length();
+
+  /** Epoch millis */
+  long lastModified();
+
+  /** Opaque, unquoted validator that changes whenever the content does */
+  String version();
+
+  /** The file on this machine's disk (allows zero-copy transfer), or null for remote objects. */
+  Path localPath();
+
+  /** Streams bytes {@code start..endInclusive}; the caller closes the stream. */
+  InputStream openRange(long start, long endInclusive) throws IOException;
+}
@@ -0,0 +1,231 @@
+package com.example.thesisrepo.service;
+
+import com.example.thesisrepo.storage.UploadSession;
+import com.example.thesisrepo.storage.UploadSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resumable PDF uploads: a session is created with the total size, chunks are
+ * PUT at offsets, and the finished part file is handed to {@link StorageService}.
+ *
+ * Each chunk is copied from the request stream into the part file with
+ * positional {@link FileChannel#transferFrom} writes, so request memory stays at
+ * one small transfer buffer whatever the file size. Whatever arrived before a
+ * dropped connection is flushed and counted, so the client resumes from there.
+ * Sessions untouched for {@code uploads.expire-after} are purged when new ones start.
+ *
+ * One request at a time works on a session: a chunk write claims it as WRITING
+ * and completion or cancelling as COMPLETING, with a conditional update, and
+ * anything else is refused as busy. A long write keeps its claim fresh; one
+ * not refreshed for {@code uploads.lock-timeout} (its node died) can be taken over.
+ *
+ * Part files live in {@code uploads.dir} (default {@code <file.storage-root>/.uploads}).
+ * The session row is shared, so with several nodes that must be one directory
+ * they all share, or the upload routed to one node throughout; a chunk or
+ * completion that lands on a node without the part file is refused as a conflict.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionService {
+
+  private final UploadSessionRepository sessions;
+
+  @Value("${file.storage-root:${user.home}/Documents/ThesisRepo/uploads}")
+  private String root;
+
+  @Value("${uploads.dir:}")
+  private String dir;
+
+  @Value("${uploads.max-size:2GB}")
+  private DataSize maxSize;
+
+  @Value("${uploads.expire-after:24h}")
+  private Duration expireAfter;
+
+  @Value("${uploads.lock-timeout:5m}")
+  private Duration lockTimeout;
+
+  // bytes per transfer step, and how often a long write saves its progress and refreshes its claim
+  private static final long STEP = 1 << 20;
+  private static final Duration HEARTBEAT = Duration.ofSeconds(30);
+  private static final byte[] PDF_HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+  public UploadSession create(Long studentId, long size) throws IOException {
+    if (size <= 0 || size > maxSize.toBytes()) {
+      throw new IllegalArgumentException("size must be between 1 and " + maxSize.toBytes() + " bytes");
+    }
+    purgeExpired();
+
+    Instant now = Instant.now();
+    UploadSession session = UploadSession.builder()
+      .id(UUID.randomUUID().toString())
+      .studentId(studentId)
+      .sizeBytes(size)
+      .receivedBytes(0)
+      .createdAt(now)
+      .updatedAt(now)
+      .status(UploadSession.Status.UPLOADING)
+      .build();
+    Path part = partPath(session.getId());
+    Files.createDirectories(part.getParent());
+    Files.createFile(part);
+    return sessions.save(session);
+  }
+
+  /** The student's own session; other students' sessions are not found. */
+  public Optional<UploadSession> find(String id, Long studentId) {
+    return sessions.findById(id).filter(s -> s.getStudentId().equals(studentId));
+  }
+
+  /**
+   * Writes the chunk in {@code body} at {@code offset}, which must not be past
+   * the received offset (re-sending already received bytes is allowed).
+   * {@code length} is the chunk size when the request declares it, else -1.
+   * Returns the new received offset. IllegalStateException if another request
+   * is working on the session.
+   */
+  public long write(UploadSession session, long offset, long length, InputStream body) throws IOException {
+    if (offset < 0 || offset > session.getReceivedBytes()) {
+      throw new IllegalArgumentException("offset must be between 0 and " + session.getReceivedBytes());
+    }
+    long limit = session.getSizeBytes();
+    if (length >= 0 && offset + length > limit) {
+      // refuse before touching the file; undeclared lengths are checked as the bytes arrive
+      throw new IllegalArgumentException("chunk runs past the declared size of " + limit + " bytes");
+    }
+    claim(session, UploadSession.Status.WRITING);
+    try {
+      return writeClaimed(session, offset, limit, body);
+    } finally {
+      sessions.release(session.getId(), UploadSession.Status.WRITING);
+    }
+  }
+
+  private long writeClaimed(UploadSession session, long offset, long limit, InputStream body) throws IOException {
+    long position = offset;
+    ReadableByteChannel in = Channels.newChannel(body);
+    try (FileChannel out = FileChannel.open(existingPart(session), StandardOpenOption.WRITE)) {
+      try {
+        long n;
+        long saved = System.nanoTime();
+        while (position < limit && (n = out.transferFrom(in, position, Math.min(STEP, limit - position))) > 0) {
+          position += n;
+          if (System.nanoTime() - saved > HEARTBEAT.toNanos()) {
+            out.force(false);
+            sessions.advance(session.getId(), position, Instant.now()); // also refreshes the claim
+            saved = System.nanoTime();
+          }
+        }
+        if (position == limit && body.read() != -1) {
+          throw new IllegalArgumentException("chunk runs past the declared size of " + limit + " bytes");
+        }
+      } finally {
+        // keep what did arrive, so the client resumes after it rather than from the chunk start
+        out.force(false);
+        if (position > session.getReceivedBytes()) {
+          sessions.advance(session.getId(), position, Instant.now());
+          session.setReceivedBytes(position);
+        }
+      }
+    }
+    return session.getReceivedBytes();
+  }
+
+  /**
+   * Claims a fully received session for completion and returns the assembled
+   * PDF. IllegalStateException if it is incomplete or busy, IllegalArgumentException
+   * if the bytes are not a PDF. Follow with {@link #discard} once the file is
+   * stored, or {@link #abandonCompletion} if storing failed.
+   */
+  public Path beginCompletion(UploadSession session) throws IOException {
+    claim(session, UploadSession.Status.COMPLETING);
+    try {
+      UploadSession current = sessions.findById(session.getId())
+        .orElseThrow(() -> new IllegalStateException("Upload no longer exists"));
+      session.setReceivedBytes(current.getReceivedBytes());
+      if (!current.isComplete()) {
+        throw new IllegalStateException("Upload incomplete: " + current.getReceivedBytes() + " of "
+          + current.getSizeBytes() + " bytes received");
+      }
+      Path part = existingPart(session);
+      if (!isPdf(part)) {
+        throw new IllegalArgumentException("The uploaded file is not a PDF");
+      }
+      return part;
+    } catch (IOException | RuntimeException e) {
+      abandonCompletion(session);
+      throw e;
+    }
+  }
+
+  public void abandonCompletion(UploadSession session) {
+    sessions.release(session.getId(), UploadSession.Status.COMPLETING);
+  }
+
+  /** Deletes the session unless another request is working on it (IllegalStateException). */
+  public void cancel(UploadSession session) throws IOException {
+    claim(session, UploadSession.Status.COMPLETING);
+    discard(session);
+  }
+
+  public void discard(UploadSession session) throws IOException {
+    sessions.delete(session);
+    Files.deleteIfExists(partPath(session.getId()));
+  }
+
+  private void purgeExpired() {
+    for (UploadSession stale : sessions.findByUpdatedAtBefore(Instant.now().minus(expireAfter))) {
+      try {
+        discard(stale);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Could not purge upload session {}: {}", stale.getId(), e.getMessage());
+      }
+    }
+  }
+
+  private void claim(UploadSession session, UploadSession.Status to) {
+    Instant now = Instant.now();
+    if (sessions.claim(session.getId(), to, now, now.minus(lockTimeout)) == 0) {
+      throw new IllegalStateException("Another request is writing to or completing this upload");
+    }
+  }
+
+  private static boolean isPdf(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return Arrays.equals(in.readNBytes(PDF_HEADER.length), PDF_HEADER);
+    }
+  }
+
+  // by default on the same file system as the store, so finishing a local upload is a rename
+  private Path partPath(String id) {
+    return dir.isBlank() ? Path.of(root, ".uploads", id + ".part") : Path.of(dir, id + ".part");
+  }
+
+  private Path existingPart(UploadSession session) {
+    Path part = partPath(session.getId());
+    if (!Files.exists(part)) {
+      throw new IllegalStateException("The partial upload is not on this server; uploads.dir must be shared by all nodes");
+    }
+    return part;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.thesisrepo.storage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One stored PDF, keyed by the SHA-256 of its bytes. Identical uploads share
+ * the blob; {@code refCount} is the number of theses whose filePath is its locator.
+ */
+@Entity
+@Table(name = "stored_blob")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class StoredBlob {
+  /** Lower-case hex SHA-256 of the content */
+  @Id
+  @Column(length = 64)
+  private String sha256;
+
+  @Column(nullable = false)
+  private long sizeBytes;
+
+  /** file:// URI of the blob */
+  @Column(nullable = false, columnDefinition = "text")
+  private String locator;
+
+  @Column(nullable = false)
+  private int refCount;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,16 @@
+package com.example.thesisrepo.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+  /** Atomic in the database, so concurrent uploads of the same file cannot lose a count. Returns rows updated. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + :delta WHERE b.sha256 = :sha256")
+  int addReferences(@Param("sha256") String sha256, @Param("delta") int delta);
+}
@@ -0,0 +1,50 @@
+package com.example.thesisrepo.storage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A resumable PDF upload in progress. Chunks are written straight into a part
+ * file at their offsets; {@code receivedBytes} is the contiguous prefix that is
+ * already on disk, i.e. where the client continues after a dropped connection.
+ * {@code status} is claimed with a conditional update by whichever request
+ * writes a chunk or completes the upload, so only one of them works on the part file.
+ */
+@Entity
+@Table(name = "upload_session")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class UploadSession {
+  @Id
+  @Column(length = 36)
+  private String id;
+
+  @Column(nullable = false)
+  private Long studentId;
+
+  /** Declared total size of the PDF */
+  @Column(nullable = false)
+  private long sizeBytes;
+
+  @Column(nullable = false)
+  private long receivedBytes;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private Status status;
+
+  public boolean isComplete() {
+    return receivedBytes == sizeBytes;
+  }
+
+  public enum Status { UPLOADING, WRITING, COMPLETING }
+}
@@ -0,0 +1,40 @@
+package com.example.thesisrepo.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+  List<UploadSession> findByUpdatedAtBefore(Instant cutoff);
+
+  /** Moves the received offset forward (never back), so overlapping chunk retries are harmless. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE UploadSession u SET u.receivedBytes = greatest(u.receivedBytes, :received), u.updatedAt = :now WHERE u.id = :id")
+  int advance(@Param("id") String id, @Param("received") long received, @Param("now") Instant now);
+
+  /**
+   * Moves an UPLOADING session to {@code to}, or takes over one left in {@code to}
+   * since before {@code staleBefore} by a request that never finished. Returns rows updated.
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE UploadSession u SET u.status = :to, u.updatedAt = :now WHERE u.id = :id"
+    + " AND (u.status = com.example.thesisrepo.storage.UploadSession.Status.UPLOADING"
+    + " OR (u.status = :to AND u.updatedAt < :staleBefore))")
+  int claim(@Param("id") String id, @Param("to") UploadSession.Status to,
+            @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+  /** Hands a session claimed as {@code from} back to UPLOADING. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE UploadSession u SET u.status = com.example.thesisrepo.storage.UploadSession.Status.UPLOADING"
+    + " WHERE u.id = :id AND u.status = :from")
+  int release(@Param("id") String id, @Param("from") UploadSession.Status from);
+}
@@ -15,7 +15,7 @@ public class Approval {
   private Long id;
 
   // Will map to approval.thesis_id (matches your DDL)
-  @ManyToOne(optional = false)
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
   private Thesis thesis;
 
   @Enumerated(EnumType.STRING)
@@ -31,7 +31,7 @@ public class Approval {
   private String notes;
 
   // IMPORTANT: align with Flyway column name "decided_by"
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "decided_by")
   private User decidedBy;
 
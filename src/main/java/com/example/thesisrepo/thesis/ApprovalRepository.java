@@ -4,5 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface ApprovalRepository extends JpaRepository<Approval, Long> {
+  // Feedback pages read only the approval's own columns, so no graph:
+  // neither the thesis nor the deciding user is joined or loaded.
   List<Approval> findByThesisId(Long thesisId);
 }
@@ -0,0 +1,54 @@
+package com.example.thesisrepo.thesis;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * What the format checker read from one PDF, keyed by the SHA-256 of its bytes.
+ * Only facts about the file live here; the rules that also depend on the thesis
+ * or on configuration are applied when the checklist is suggested.
+ */
+@Entity
+@Table(name = "pdf_check")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PdfCheck {
+  /** Lower-case hex SHA-256 of the content */
+  @Id
+  @Column(length = 64)
+  private String sha256;
+
+  /** Checker version that read the file; older rows are read again */
+  @Column(nullable = false)
+  private int version;
+
+  @Column(nullable = false)
+  private int pageCount;
+
+  /** Font families used, one per line */
+  @Column(columnDefinition = "text")
+  private String fonts;
+
+  /** Fonts used without being embedded, one per line */
+  @Column(columnDefinition = "text")
+  private String unembeddedFonts;
+
+  @Column(nullable = false)
+  private int watermarkPages;
+
+  /** Centred lines in the upper part of page 1, one per line */
+  @Column(columnDefinition = "text")
+  private String titleText;
+
+  /** First page (1-based) that reads like an approval page */
+  private Integer approvalPage;
+
+  /** First approval page with a signature image, ink or signed field on it */
+  private Integer signaturePage;
+
+  @Column(nullable = false)
+  private Instant checkedAt;
+}
@@ -0,0 +1,6 @@
+package com.example.thesisrepo.thesis;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PdfCheckRepository extends JpaRepository<PdfCheck, String> {
+}
@@ -0,0 +1,26 @@
+package com.example.thesisrepo.thesis;
+
+import java.time.Instant;
+
+/**
+ * Closed projection of the publicly visible thesis columns, used by the public
+ * endpoints so they never load the {@code Thesis} entity or its student row.
+ * The student contributes only its email, through a join in the same query.
+ */
+public interface PublicThesisView {
+  Long getId();
+  String getTitle();
+  String getAbstractText();
+  String getKeywords();
+  String getFaculty();
+  String getMajor();
+  Integer getYearPublished();
+  Instant getPublishedAt();
+  String getStudentName();
+  String getSupervisorName();
+  String getProgram();
+  Integer getSubmissionYear();
+  String getFilePath();
+  Thesis.ThesisStatus getCurrentStatus();
+  String getAuthorEmail();
+}
@@ -5,18 +5,23 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@NamedEntityGraph(name = SupervisorAssignment.WITH_LECTURER, attributeNodes = @NamedAttributeNode("lecturer"))
+@NamedEntityGraph(name = SupervisorAssignment.WITH_STUDENT, attributeNodes = @NamedAttributeNode("student"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 @Table(uniqueConstraints = @UniqueConstraint(columnNames = {"lecturer_user_id","student_user_id"}))
 public class SupervisorAssignment {
+  public static final String WITH_LECTURER = "SupervisorAssignment.lecturer";
+  public static final String WITH_STUDENT = "SupervisorAssignment.student";
+
   @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
-  @ManyToOne(optional = false) @JoinColumn(name = "lecturer_user_id")
+  @ManyToOne(optional = false, fetch = FetchType.LAZY) @JoinColumn(name = "lecturer_user_id")
   private User lecturer;
 
-  @ManyToOne(optional = false) @JoinColumn(name = "student_user_id")
+  @ManyToOne(optional = false, fetch = FetchType.LAZY) @JoinColumn(name = "student_user_id")
   private User student;
 
   @Builder.Default
@@ -1,6 +1,7 @@
 package com.example.thesisrepo.thesis;
 
 import com.example.thesisrepo.user.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,12 +15,16 @@ public interface SupervisorAssignmentRepository extends JpaRepository<Supervisor
   boolean existsByLecturerAndStudent(User lecturer, User student);
 
   // For lecturer portal: find all supervisees of this lecturer
+  @EntityGraph(SupervisorAssignment.WITH_STUDENT)
   @Query("SELECT sa FROM SupervisorAssignment sa WHERE sa.lecturer.id = :lecturerId")
   List<SupervisorAssignment> findByLecturerId(@Param("lecturerId") Long lecturerId);
+  @EntityGraph(SupervisorAssignment.WITH_STUDENT)
   List<SupervisorAssignment> findByLecturer(User lecturer);
 
   // For student portal: find all supervisors of this student
+  @EntityGraph(SupervisorAssignment.WITH_LECTURER)
   @Query("SELECT sa FROM SupervisorAssignment sa WHERE sa.student.id = :studentId")
   List<SupervisorAssignment> findByStudentId(@Param("studentId") Long studentId);
+  @EntityGraph(SupervisorAssignment.WITH_LECTURER)
   List<SupervisorAssignment> findByStudent(User student);
 }
@@ -6,14 +6,17 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
+@NamedEntityGraph(name = Thesis.WITH_STUDENT, attributeNodes = @NamedAttributeNode("student"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Thesis {
+  public static final String WITH_STUDENT = "Thesis.student";
+
   @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
   @JoinColumn(name = "student_id")
   private User student;
 
@@ -30,6 +33,9 @@ public class Thesis {
 
   private Instant submittedAt;
 
+  /** Filled in by the PAGE_COUNT processing stage after submission */
+  private Integer pageCount;
+
   /** Year the thesis was published (e.g., 2025) */
   private Integer yearPublished;
 
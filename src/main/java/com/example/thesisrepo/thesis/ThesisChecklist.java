@@ -7,6 +7,7 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
+@NamedEntityGraph(name = ThesisChecklist.WITH_ITEM, attributeNodes = @NamedAttributeNode("item"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -14,24 +15,32 @@ import java.time.Instant;
   uniqueConstraints = @UniqueConstraint(columnNames = {"thesis_id","item_id"})
 )
 public class ThesisChecklist {
+  public static final String WITH_ITEM = "ThesisChecklist.item";
+
   @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
   // Make FK column names explicit to match the Flyway DDL
-  @ManyToOne(optional = false)
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
   @JoinColumn(name = "thesis_id")
   private Thesis thesis;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
   @JoinColumn(name = "item_id")
   private ChecklistItem item;
 
   private boolean checked;
 
   // IMPORTANT: column is "checked_by" (not checked_by_id)
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "checked_by")
   private User checkedBy;
 
   private Instant checkedAt;
+
+  /** The format checker's unconfirmed opinion; {@code checked} stays the librarian's */
+  private boolean suggested;
+
+  @Column(length = 500)
+  private String suggestionNote;
 }
@@ -1,10 +1,25 @@
 package com.example.thesisrepo.thesis;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
 public interface ThesisChecklistRepository extends JpaRepository<ThesisChecklist, Long> {
+  // every caller reads item key/label
+  @EntityGraph(ThesisChecklist.WITH_ITEM)
   List<ThesisChecklist> findByThesisId(Long thesisId);
   Optional<ThesisChecklist> findByThesisIdAndItemId(Long thesisId, Long itemId);
+
+  /** Sets only the checker's columns, so a librarian's concurrent tick is never overwritten. Returns rows updated. */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE ThesisChecklist tc SET tc.suggested = :suggested, tc.suggestionNote = :note"
+    + " WHERE tc.thesis.id = :thesisId AND tc.item.id = :itemId")
+  int suggest(@Param("thesisId") Long thesisId, @Param("itemId") Long itemId,
+              @Param("suggested") boolean suggested, @Param("note") String note);
 }
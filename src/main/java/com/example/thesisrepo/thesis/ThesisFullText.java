@@ -0,0 +1,38 @@
+package com.example.thesisrepo.thesis;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Text extracted from a thesis PDF. The text itself lives in a plain-text
+ * sidecar file (written page by page), this row only tracks where and how it went.
+ */
+@Entity
+@Table(name = "thesis_full_text")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ThesisFullText {
+  @Id
+  private Long thesisId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Status status;
+
+  private Integer pageCount;
+
+  private Long textBytes;
+
+  /** Local path of the extracted UTF-8 text */
+  private String textPath;
+
+  @Column(columnDefinition = "text")
+  private String error;
+
+  private Instant extractedAt;
+
+  public enum Status { PENDING, DONE, FAILED }
+}
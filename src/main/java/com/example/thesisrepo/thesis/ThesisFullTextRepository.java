@@ -0,0 +1,10 @@
+package com.example.thesisrepo.thesis;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ThesisFullTextRepository extends JpaRepository<ThesisFullText, Long> {
+  List<ThesisFullText> findByThesisIdInAndStatus(Collection<Long> thesisIds, ThesisFullText.Status status);
+}
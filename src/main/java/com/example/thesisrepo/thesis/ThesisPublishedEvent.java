@@ -0,0 +1,7 @@
+package com.example.thesisrepo.thesis;
+
+/**
+ * Raised after a thesis has been saved with status PUBLISHED, so the
+ * public-facing indexes can pick it up without a full reload.
+ */
+public record ThesisPublishedEvent(Thesis thesis) {}
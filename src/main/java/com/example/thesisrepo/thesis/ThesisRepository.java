@@ -1,12 +1,210 @@
 package com.example.thesisrepo.thesis;
 
 import com.example.thesisrepo.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ThesisRepository extends JpaRepository<Thesis, Long> {
+
+  // Select lists for PublicThesisView; aliases must match its getters.
+  String PUBLIC_COLUMNS = """
+      t.id AS id, t.title AS title, t.abstractText AS abstractText, t.keywords AS keywords,
+      t.faculty AS faculty, t.major AS major, t.yearPublished AS yearPublished,
+      t.publishedAt AS publishedAt, t.studentName AS studentName, t.supervisorName AS supervisorName,
+      t.program AS program, t.submissionYear AS submissionYear, t.filePath AS filePath,
+      t.currentStatus AS currentStatus, s.email AS authorEmail
+      """;
+  String PUBLIC_COLUMNS_SQL = """
+      t.id AS "id", t.title AS "title", t.abstract_text AS "abstractText", t.keywords AS "keywords",
+      t.faculty AS "faculty", t.major AS "major", t.year_published AS "yearPublished",
+      t.published_at AS "publishedAt", t.student_name AS "studentName", t.supervisor_name AS "supervisorName",
+      t.program AS "program", t.submission_year AS "submissionYear", t.file_path AS "filePath",
+      t.current_status AS "currentStatus", u.email AS "authorEmail"
+      """;
+
   List<Thesis> findByStudent(User student);
   // convenience overload used by controller:
+  @EntityGraph(Thesis.WITH_STUDENT)
   List<Thesis> findByStudentId(Long studentId);
+  List<Thesis> findByStudentIdIn(Collection<Long> studentIds);
+
+  // Submission counts for many students in one grouped query.
+  @Query("SELECT t.student.id AS studentId, COUNT(t) AS count FROM Thesis t WHERE t.student.id IN :ids GROUP BY t.student.id")
+  List<StudentThesisCount> countByStudentIds(@Param("ids") Collection<Long> studentIds);
+
+  interface StudentThesisCount {
+    Long getStudentId();
+    long getCount();
+  }
+
+  @Query("SELECT t.pageCount FROM Thesis t WHERE t.id = :id")
+  Integer findPageCount(@Param("id") Long id);
+
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE Thesis t SET t.pageCount = :pages WHERE t.id = :id")
+  int updatePageCount(@Param("id") Long id, @Param("pages") int pages);
+
+  // index rebuilds read only the thesis's own columns
   List<Thesis> findByCurrentStatus(Thesis.ThesisStatus status);
+
+  // Admin views: the thesis plus its student in one query.
+  @EntityGraph(Thesis.WITH_STUDENT)
+  @Query("SELECT t FROM Thesis t")
+  List<Thesis> findAllWithStudent();
+
+  @EntityGraph(Thesis.WITH_STUDENT)
+  @Query("SELECT t FROM Thesis t WHERE t.currentStatus = :status")
+  List<Thesis> findWithStudentByCurrentStatus(@Param("status") Thesis.ThesisStatus status);
+
+  @Query("SELECT " + PUBLIC_COLUMNS + " FROM Thesis t LEFT JOIN t.student s WHERE t.id = :id")
+  Optional<PublicThesisView> findPublicViewById(@Param("id") Long id);
+
+  // Order is unspecified; callers re-sort by their own ranking.
+  @Query("SELECT " + PUBLIC_COLUMNS + " FROM Thesis t LEFT JOIN t.student s WHERE t.id IN :ids AND t.currentStatus = :status")
+  List<PublicThesisView> findPublicViewsByIdIn(@Param("ids") Collection<Long> ids,
+                                               @Param("status") Thesis.ThesisStatus status);
+
+  // Unpaged, unordered filter over published theses (memory backend without a keyword).
+  // faculty/major must already be lower-cased by the caller.
+  @Query("SELECT " + PUBLIC_COLUMNS + """
+      FROM Thesis t LEFT JOIN t.student s
+      WHERE t.currentStatus = :status
+        AND (:year IS NULL OR t.yearPublished = :year)
+        AND (:faculty IS NULL OR lower(t.faculty) = :faculty)
+        AND (:major IS NULL OR lower(t.major) = :major)
+      """)
+  List<PublicThesisView> findPublicViews(@Param("status") Thesis.ThesisStatus status,
+                                         @Param("year") Integer year,
+                                         @Param("faculty") String faculty,
+                                         @Param("major") String major);
+
+  // Public search pushed down to PostgreSQL (see V11 for search_vector + GIN index).
+  // A null argument disables that filter; results are ordered by ts_rank.
+  @Query(value = "SELECT " + PUBLIC_COLUMNS_SQL + """
+      FROM thesis t LEFT JOIN users u ON u.id = t.student_id
+      WHERE t.current_status = 'PUBLISHED'
+        AND (CAST(:tsquery AS text) IS NULL OR t.search_vector @@ to_tsquery('simple', CAST(:tsquery AS text)))
+        AND (CAST(:year AS integer) IS NULL OR t.year_published = CAST(:year AS integer))
+        AND (CAST(:faculty AS text) IS NULL OR lower(t.faculty) = lower(CAST(:faculty AS text)))
+        AND (CAST(:major AS text) IS NULL OR lower(t.major) = lower(CAST(:major AS text)))
+      ORDER BY ts_rank(t.search_vector, to_tsquery('simple', coalesce(CAST(:tsquery AS text), ''))) DESC, t.id
+      """, nativeQuery = true)
+  List<PublicThesisView> searchPublishedFullText(@Param("tsquery") String tsquery,
+                                                 @Param("year") Integer year,
+                                                 @Param("faculty") String faculty,
+                                                 @Param("major") String major);
+
+  // Keyset (seek) pagination over published theses, newest first, backed by
+  // idx_thesis_status_published (V12). Pass a null cursor for the first page
+  // and Pageable.ofSize(n) for the page size; no count query is issued.
+  // faculty/major must already be lower-cased by the caller.
+  @Query("SELECT " + PUBLIC_COLUMNS + """
+      FROM Thesis t LEFT JOIN t.student s
+      WHERE t.currentStatus = :status AND t.publishedAt IS NOT NULL
+        AND (:year IS NULL OR t.yearPublished = :year)
+        AND (:faculty IS NULL OR lower(t.faculty) = :faculty)
+        AND (:major IS NULL OR lower(t.major) = :major)
+        AND (:afterPublishedAt IS NULL
+             OR t.publishedAt < :afterPublishedAt
+             OR (t.publishedAt = :afterPublishedAt AND t.id < :afterId))
+      ORDER BY t.publishedAt DESC, t.id DESC
+      """)
+  List<PublicThesisView> findPublishedPage(@Param("status") Thesis.ThesisStatus status,
+                                           @Param("year") Integer year,
+                                           @Param("faculty") String faculty,
+                                           @Param("major") String major,
+                                           @Param("afterPublishedAt") Instant afterPublishedAt,
+                                           @Param("afterId") Long afterId,
+                                           Pageable page);
+
+  // Facet counts for the postgres backend, over the same match as searchPublishedFullText so
+  // the sidebar agrees with the rows. Each dimension honours the filters on the other two;
+  // rows are (dimension, value, count). With filterIds, only ids in :ids are counted
+  // (the author filter, which comes from the in-memory index).
+  @Query(value = """
+      WITH hits AS (
+        SELECT t.year_published, t.faculty, t.major FROM thesis t
+        WHERE t.current_status = 'PUBLISHED'
+          AND (CAST(:tsquery AS text) IS NULL OR t.search_vector @@ to_tsquery('simple', CAST(:tsquery AS text)))
+          AND (CAST(:filterIds AS boolean) = false OR t.id = ANY(:ids))
+      )
+      SELECT 'year' AS dimension, CAST(year_published AS text) AS value, count(*) AS hits FROM hits
+      WHERE year_published IS NOT NULL
+        AND (CAST(:faculty AS text) IS NULL OR lower(faculty) = lower(CAST(:faculty AS text)))
+        AND (CAST(:major AS text) IS NULL OR lower(major) = lower(CAST(:major AS text)))
+      GROUP BY year_published
+      UNION ALL
+      SELECT 'faculty', min(faculty), count(*) FROM hits
+      WHERE btrim(coalesce(faculty, '')) <> ''
+        AND (CAST(:year AS integer) IS NULL OR year_published = CAST(:year AS integer))
+        AND (CAST(:major AS text) IS NULL OR lower(major) = lower(CAST(:major AS text)))
+      GROUP BY lower(faculty)
+      UNION ALL
+      SELECT 'major', min(major), count(*) FROM hits
+      WHERE btrim(coalesce(major, '')) <> ''
+        AND (CAST(:year AS integer) IS NULL OR year_published = CAST(:year AS integer))
+        AND (CAST(:faculty AS text) IS NULL OR lower(faculty) = lower(CAST(:faculty AS text)))
+      GROUP BY lower(major)
+      """, nativeQuery = true)
+  List<Object[]> countPublishedFacets(@Param("tsquery") String tsquery,
+                                      @Param("filterIds") boolean filterIds,
+                                      @Param("ids") Long[] ids,
+                                      @Param("year") Integer year,
+                                      @Param("faculty") String faculty,
+                                      @Param("major") String major);
+
+  // Same as above, restricted to ids already matched by the search index, returning only
+  // the page's ids. The candidates are bound as one array (= ANY) rather than an IN list,
+  // so a broad keyword match does not turn into thousands of bind parameters; the caller
+  // loads the views for the page with findPublicViewsByIdIn.
+  @Query(value = """
+      SELECT t.id FROM thesis t
+      WHERE t.id = ANY(:ids) AND t.current_status = 'PUBLISHED' AND t.published_at IS NOT NULL
+        AND (CAST(:year AS integer) IS NULL OR t.year_published = CAST(:year AS integer))
+        AND (CAST(:faculty AS text) IS NULL OR lower(t.faculty) = lower(CAST(:faculty AS text)))
+        AND (CAST(:major AS text) IS NULL OR lower(t.major) = lower(CAST(:major AS text)))
+        AND (CAST(:afterPublishedAt AS timestamp) IS NULL
+             OR (t.published_at, t.id) < (CAST(:afterPublishedAt AS timestamp), CAST(:afterId AS bigint)))
+      ORDER BY t.published_at DESC, t.id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<Long> findPublishedPageIdsIn(@Param("ids") Long[] ids,
+                                    @Param("year") Integer year,
+                                    @Param("faculty") String faculty,
+                                    @Param("major") String major,
+                                    @Param("afterPublishedAt") Instant afterPublishedAt,
+                                    @Param("afterId") Long afterId,
+                                    @Param("limit") int limit);
+
+  // Full-text variant of the keyset page; paging follows (published_at, id), not rank.
+  @Query(value = "SELECT " + PUBLIC_COLUMNS_SQL + """
+      FROM thesis t LEFT JOIN users u ON u.id = t.student_id
+      WHERE t.current_status = 'PUBLISHED' AND t.published_at IS NOT NULL
+        AND (CAST(:tsquery AS text) IS NULL OR t.search_vector @@ to_tsquery('simple', CAST(:tsquery AS text)))
+        AND (CAST(:year AS integer) IS NULL OR t.year_published = CAST(:year AS integer))
+        AND (CAST(:faculty AS text) IS NULL OR lower(t.faculty) = lower(CAST(:faculty AS text)))
+        AND (CAST(:major AS text) IS NULL OR lower(t.major) = lower(CAST(:major AS text)))
+        AND (CAST(:afterPublishedAt AS timestamp) IS NULL
+             OR (t.published_at, t.id) < (CAST(:afterPublishedAt AS timestamp), CAST(:afterId AS bigint)))
+      ORDER BY t.published_at DESC, t.id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<PublicThesisView> searchPublishedFullTextPage(@Param("tsquery") String tsquery,
+                                                     @Param("year") Integer year,
+                                                     @Param("faculty") String faculty,
+                                                     @Param("major") String major,
+                                                     @Param("afterPublishedAt") Instant afterPublishedAt,
+                                                     @Param("afterId") Long afterId,
+                                                     @Param("limit") int limit);
 }
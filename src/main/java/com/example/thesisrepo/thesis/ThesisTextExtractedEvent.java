@@ -0,0 +1,6 @@
+package com.example.thesisrepo.thesis;
+
+/**
+ * Raised when text extraction for a thesis PDF has finished (successfully or not).
+ */
+public record ThesisTextExtractedEvent(Long thesisId) {}
@@ -0,0 +1,7 @@
+package com.example.thesisrepo.thesis;
+
+/**
+ * Raised after a PUBLISHED thesis has been saved with another status (e.g. sent
+ * back by a library decision), so the public-facing indexes and caches drop it.
+ */
+public record ThesisWithdrawnEvent(Thesis thesis) {}
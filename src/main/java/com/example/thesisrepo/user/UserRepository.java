@@ -1,9 +1,11 @@
 package com.example.thesisrepo.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
   boolean existsByEmail(String email);
+  List<User> findByRole(Role role);
 }
@@ -4,17 +4,22 @@ import com.example.thesisrepo.profile.LecturerProfile;
 import com.example.thesisrepo.profile.LecturerProfileRepository;
 import com.example.thesisrepo.profile.StudentProfile;
 import com.example.thesisrepo.profile.StudentProfileRepository;
+import com.example.thesisrepo.processing.ProcessingJob;
+import com.example.thesisrepo.processing.ProcessingPipeline;
 import com.example.thesisrepo.service.CurrentUserService;
+import com.example.thesisrepo.service.LocalStorageService;
 import com.example.thesisrepo.thesis.*;
 import com.example.thesisrepo.user.Role;
 import com.example.thesisrepo.user.User;
 import com.example.thesisrepo.user.UserRepository;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -29,6 +34,9 @@ public class AdminController {
   private final ChecklistItemRepository items;
   private final ApprovalRepository approvals;
   private final CurrentUserService current;
+  private final ApplicationEventPublisher events;
+  private final ProcessingPipeline processing;
+  private final Optional<LocalStorageService> localStorage;
 
   // ➕ new dependencies for student and lecturer lookup
   private final UserRepository users;
@@ -40,23 +48,31 @@ public class AdminController {
   @PreAuthorize("hasRole('ADMIN')")
   public List<Thesis> byStatus(@RequestParam(required = false) String status) {
     if (status == null || status.isBlank()) {
-      return theses.findAll();
+      return theses.findAllWithStudent();
     }
     var s = Thesis.ThesisStatus.valueOf(status.toUpperCase());
-    return theses.findByCurrentStatus(s);
+    return theses.findWithStudentByCurrentStatus(s);
   }
 
-  /** Get currently checked keys for a thesis (so UI can pre-fill) */
+  /**
+   * Get currently checked keys for a thesis (so UI can pre-fill), plus the
+   * format checker's unconfirmed suggestions: key -> { suggested, note }
+   */
   @GetMapping("/theses/{id}/checklist")
   @PreAuthorize("hasRole('ADMIN')")
   public Map<String, Object> getChecklist(@PathVariable Long id) {
     var thesis = theses.findById(id).orElseThrow();
-    var checked = tchecks.findByThesisId(thesis.getId()).stream()
+    var rows = tchecks.findByThesisId(thesis.getId());
+    var checked = rows.stream()
       .filter(ThesisChecklist::isChecked)
       .map(tc -> tc.getItem().getKey())
       .collect(Collectors.toSet());
+    var suggestions = rows.stream()
+      .filter(tc -> tc.getSuggestionNote() != null)
+      .collect(Collectors.toMap(tc -> tc.getItem().getKey(),
+        tc -> Map.of("suggested", tc.isSuggested(), "note", tc.getSuggestionNote())));
 
-    return Map.of("thesisId", id, "checked", checked);
+    return Map.of("thesisId", id, "checked", checked, "suggestions", suggestions);
   }
 
   /**
@@ -186,8 +202,12 @@ public class AdminController {
       }
     }
 
+    boolean withdrawn = thesis.getCurrentStatus() == Thesis.ThesisStatus.PUBLISHED;
     thesis.setCurrentStatus(next);
     theses.save(thesis);
+    if (withdrawn) {
+      events.publishEvent(new ThesisWithdrawnEvent(thesis));
+    }
 
     approvals.save(Approval.builder()
       .thesis(thesis)
@@ -221,12 +241,14 @@ public class AdminController {
     thesis.setCurrentStatus(Thesis.ThesisStatus.PUBLISHED);
     thesis.setPublishedAt(Instant.now());
     
-    // Set yearPublished from submittedAt if not already set
+    // Set yearPublished from submittedAt if not already set. Taken in UTC:
+    // Year.from(Instant) throws, an Instant having no calendar fields
     if (thesis.getYearPublished() == null && thesis.getSubmittedAt() != null) {
-      thesis.setYearPublished(java.time.Year.from(thesis.getSubmittedAt()).getValue());
+      thesis.setYearPublished(thesis.getSubmittedAt().atZone(java.time.ZoneOffset.UTC).getYear());
     }
     
     theses.save(thesis);
+    events.publishEvent(new ThesisPublishedEvent(thesis));
 
     return ResponseEntity.ok(Map.of(
       "thesisId", thesis.getId(),
@@ -235,6 +257,34 @@ public class AdminController {
     ));
   }
 
+  /** Post-submission processing of a thesis, stage by stage */
+  @GetMapping("/theses/{id}/processing")
+  @PreAuthorize("hasRole('ADMIN')")
+  public List<ProcessingJob> getProcessing(@PathVariable Long id) {
+    return processing.status(id);
+  }
+
+  /** Run the FAILED processing stages of a thesis again, with fresh attempts */
+  @PostMapping("/theses/{id}/processing/retry")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<?> retryProcessing(@PathVariable Long id) {
+    return ResponseEntity.ok(Map.of("thesisId", id, "requeued", processing.retryFailed(id)));
+  }
+
+  /** Sharded local storage: move files onto the roots the ring assigns them, e.g. after adding a root */
+  @PostMapping("/storage/rebalance")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<?> rebalanceStorage() throws IOException {
+    if (localStorage.isEmpty()) {
+      return ResponseEntity.badRequest().body(Map.of("error", "Rebalancing applies to local storage only"));
+    }
+    try {
+      return ResponseEntity.ok(localStorage.get().rebalance());
+    } catch (IllegalStateException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
   // ──────────────────────────────────────────────────────────────────────────
   // NEW: Student account lookup for admin portal
   // ──────────────────────────────────────────────────────────────────────────
@@ -289,12 +339,13 @@ public class AdminController {
   @GetMapping("/lecturers")
   @PreAuthorize("hasRole('ADMIN')")
   public List<LecturerAccountDto> listLecturers() {
-    return users.findAll().stream()
-      .filter(u -> u.getRole() == Role.LECTURER)
-      .map(u -> {
-        var profile = lecturerProfiles.findByUserId(u.getId()).orElse(null);
-        return LecturerAccountDto.from(u, profile);
-      })
+    List<User> lecturers = users.findByRole(Role.LECTURER);
+    // profiles share the user's id, so one IN query covers them all
+    Map<Long, LecturerProfile> profiles = lecturerProfiles.findAllById(lecturers.stream().map(User::getId).toList())
+      .stream()
+      .collect(Collectors.toMap(LecturerProfile::getUserId, p -> p));
+    return lecturers.stream()
+      .map(u -> LecturerAccountDto.from(u, profiles.get(u.getId())))
       .toList();
   }
 
@@ -306,14 +357,24 @@ public class AdminController {
   @PreAuthorize("hasRole('ADMIN')")
   public List<Map<String, Object>> listSubmissions() {
     List<Map<String, Object>> result = new ArrayList<>();
-    
-    for (Thesis thesis : theses.findAll()) {
+    List<Thesis> all = theses.findAllWithStudent();
+
+    // Profiles are only needed where the thesis has no studentName; fetch them in one go
+    Set<Long> missingNames = all.stream()
+      .filter(t -> t.getStudentName() == null || t.getStudentName().isBlank())
+      .map(t -> t.getStudent().getId())
+      .collect(Collectors.toSet());
+    Map<Long, StudentProfile> profiles = missingNames.isEmpty() ? Map.of()
+      : studentProfiles.findAllById(missingNames).stream()
+          .collect(Collectors.toMap(StudentProfile::getUserId, p -> p));
+
+    for (Thesis thesis : all) {
       // Use thesis.studentName as primary source (set when thesis is submitted)
       String studentName = thesis.getStudentName();
       if (studentName == null || studentName.isBlank()) {
         // Fallback: try to get from StudentProfile
         User student = thesis.getStudent();
-        StudentProfile studentProfile = studentProfiles.findById(student.getId()).orElse(null);
+        StudentProfile studentProfile = profiles.get(student.getId());
         studentName = studentProfile != null && studentProfile.getName() != null ? 
           studentProfile.getName() : student.getEmail();
       }
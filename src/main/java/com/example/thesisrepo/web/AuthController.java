@@ -42,7 +42,6 @@ public class AuthController {
                 .build());
 
         studentProfiles.save(StudentProfile.builder()
-                .userId(u.getId())
                 .user(u)
                 .name(payload.getFullName())
                 .studentNumber(payload.getStudentNumber())
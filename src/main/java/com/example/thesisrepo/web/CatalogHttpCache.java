@@ -0,0 +1,150 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.search.CatalogVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Conditional GET for the public catalog.
+ *
+ * ETags are strong and derived from {@link CatalogVersion}: responses built
+ * from the whole published set carry the catalog version, a thesis detail
+ * carries that thesis's own version. Both are known without a query, so a
+ * matching {@code If-None-Match} is answered with 304 before the repository
+ * or the result cache is consulted.
+ *
+ * Cache-Control max-age is configured per endpoint under {@code public-cache};
+ * 0 means "no-cache", i.e. clients and proxies revalidate on every use.
+ */
+@Component
+@RequiredArgsConstructor
+class CatalogHttpCache {
+
+  private final CatalogVersion catalog;
+
+  @Value("${public-cache.listing:60s}")
+  private Duration listing;
+
+  @Value("${public-cache.search:60s}")
+  private Duration search;
+
+  @Value("${public-cache.detail:5m}")
+  private Duration detail;
+
+  @Value("${public-cache.related:5m}")
+  private Duration related;
+
+  String catalogTag() {
+    return "\"c" + catalog.current() + "\"";
+  }
+
+  String thesisTag(long thesisId) {
+    return "\"t" + thesisId + "-" + catalog.ofThesis(thesisId) + "\"";
+  }
+
+  CacheControl listing() {
+    return control(listing);
+  }
+
+  CacheControl search() {
+    return control(search);
+  }
+
+  CacheControl detail() {
+    return control(detail);
+  }
+
+  CacheControl related() {
+    return control(related);
+  }
+
+  /**
+   * True when {@code ifNoneMatch} (the raw header, may be null) lists {@code etag}
+   * or is "*". Weak validators compare equal to their strong form, as GET requires.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * True when {@code acceptEncoding} (the raw header, may be null) makes gzip
+   * acceptable and at least as preferred as the unencoded body. Codings are
+   * compared as whole tokens ("x-gzip" is gzip's alias, "x-gzip-foo" is not
+   * gzip), q=0 means "not acceptable", and an unlisted gzip or identity takes
+   * the weight of "*" as RFC 9110 describes. Equal weights go to gzip.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isBlank()) {
+      return false;
+    }
+    double gzip = -1;
+    double identity = -1;
+    double any = -1;
+    for (String element : acceptEncoding.split(",")) {
+      String[] params = element.split(";");
+      String coding = params[0].trim().toLowerCase(Locale.ROOT);
+      double q = 1;
+      for (int i = 1; i < params.length; i++) {
+        String param = params[i].trim();
+        if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+          q = qvalue(param.substring(2));
+        }
+      }
+      switch (coding) {
+        case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+        case "identity" -> identity = q;
+        case "*" -> any = q;
+        default -> { }
+      }
+    }
+    if (gzip < 0) {
+      gzip = Math.max(any, 0);
+    }
+    if (identity < 0) {
+      identity = Math.max(any, 0); // still acceptable; it just does not outrank a listed gzip
+    }
+    return gzip > 0 && gzip >= identity;
+  }
+
+  // weight between 0 and 1; one that does not parse counts as "not acceptable"
+  private static double qvalue(String raw) {
+    try {
+      double q = Double.parseDouble(raw.trim());
+      return q >= 0 && q <= 1 ? q : 0;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+  }
+
+  private static CacheControl control(Duration maxAge) {
+    return maxAge.isZero() || maxAge.isNegative()
+      ? CacheControl.noCache().cachePublic()
+      : CacheControl.maxAge(maxAge).cachePublic();
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.search.CatalogReloadEvent;
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The full, unpaged {@code GET /api/public/theses} body, serialized once per
+ * change of the published set into immutable byte arrays (plain and gzip).
+ *
+ * Rebuilds run on {@code catalogSnapshotExecutor} after startup and after every
+ * publish or withdrawal, on this node or another ({@link CatalogReloadEvent});
+ * the finished snapshot is swapped in atomically, so readers never block and
+ * keep seeing the previous one until then. Enabled by
+ * {@code public-cache.snapshot}; when off, or before the first build,
+ * {@link #current()} is null and the controller takes its normal path.
+ */
+@Slf4j
+@Component
+class CatalogSnapshot {
+
+  /** ETags are content hashes, so they are right even while a rebuild is pending. */
+  record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag, int count) {}
+
+  private final ThesisRepository theses;
+  private final ObjectMapper objectMapper;
+  private final ThreadPoolTaskExecutor executor;
+  private final boolean enabled;
+
+  private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+  CatalogSnapshot(ThesisRepository theses,
+                  ObjectMapper objectMapper,
+                  @Qualifier("catalogSnapshotExecutor") ThreadPoolTaskExecutor executor,
+                  @Value("${public-cache.snapshot:true}") boolean enabled) {
+    this.theses = theses;
+    this.objectMapper = objectMapper;
+    this.executor = executor;
+    this.enabled = enabled;
+  }
+
+  Snapshot current() {
+    return current.get();
+  }
+
+  @EventListener({ ApplicationReadyEvent.class, ThesisPublishedEvent.class, ThesisWithdrawnEvent.class,
+                   CatalogReloadEvent.class })
+  public void scheduleRebuild() {
+    if (enabled) {
+      executor.execute(this::rebuild);
+    }
+  }
+
+  void rebuild() {
+    try {
+      List<Object> dtos = PublicController.toDtos(theses.findPublishedPage(
+        Thesis.ThesisStatus.PUBLISHED, null, null, null, null, null, Pageable.unpaged()), null);
+      byte[] json = objectMapper.writeValueAsBytes(dtos);
+      byte[] gzip = gzip(json);
+      String hash = sha256(json);
+      current.set(new Snapshot(json, gzip, "\"s" + hash + "\"", "\"s" + hash + "-gz\"", dtos.size()));
+      log.debug("Catalog snapshot rebuilt: {} theses, {} bytes ({} gzipped)", dtos.size(), json.length, gzip.length);
+    } catch (IOException | RuntimeException e) {
+      // keep serving the previous snapshot; the next catalogue change tries again
+      log.warn("Catalog snapshot rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+    try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+      gz.write(data);
+    }
+    return out.toByteArray();
+  }
+
+  private static String sha256(byte[] data) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+      return HexFormat.of().formatHex(digest, 0, 12);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
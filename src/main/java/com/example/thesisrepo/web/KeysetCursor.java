@@ -0,0 +1,49 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.thesis.PublicThesisView;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in the public catalog for keyset pagination, written as
+ * {@code <publishedAt>,<id>} (e.g. "2024-05-01T08:00:00Z,42").
+ */
+record KeysetCursor(Instant publishedAt, Long id) {
+
+  static final int DEFAULT_LIMIT = 20;
+  static final int MAX_LIMIT = 100;
+
+  static KeysetCursor parse(String raw) {
+    if (raw == null || raw.isBlank()) {
+      return null;
+    }
+    int comma = raw.lastIndexOf(',');
+    if (comma < 0) {
+      throw new IllegalArgumentException("cursor must look like <publishedAt>,<id>");
+    }
+    try {
+      return new KeysetCursor(
+        Instant.parse(raw.substring(0, comma).trim()),
+        Long.parseLong(raw.substring(comma + 1).trim()));
+    } catch (DateTimeParseException | NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + raw);
+    }
+  }
+
+  static KeysetCursor after(PublicThesisView last) {
+    return last == null ? null : new KeysetCursor(last.getPublishedAt(), last.getId());
+  }
+
+  static int clampLimit(Integer limit) {
+    if (limit == null || limit <= 0) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.min(limit, MAX_LIMIT);
+  }
+
+  @Override
+  public String toString() {
+    return publishedAt + "," + id;
+  }
+}
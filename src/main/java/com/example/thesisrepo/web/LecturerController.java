@@ -17,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Endpoints related to lecturers and supervision relationships.
@@ -98,11 +99,12 @@ public class LecturerController {
     var me = current.requireCurrentUser();
 
     List<SupervisorAssignment> links = assignments.findByStudentId(me.getId());
+    Map<Long, LecturerProfile> profiles = lecturerProfilesOf(links.stream().map(a -> a.getLecturer().getId()).toList());
     List<Map<String, Object>> out = new ArrayList<>();
 
     for (SupervisorAssignment a : links) {
       User lect = a.getLecturer();
-      var profile = lecturerProfiles.findById(lect.getId()).orElse(null);
+      var profile = profiles.get(lect.getId());
       out.add(Map.of(
         "lecturerId", lect.getId(),
         "email", lect.getEmail(),
@@ -132,6 +134,17 @@ public class LecturerController {
 
     // Find all students linked to this lecturer
     var assignments_list = assignments.findByLecturerId(me.getId());
+    List<Long> studentIds = assignments_list.stream().map(a -> a.getStudent().getId()).toList();
+    if (studentIds.isEmpty()) {
+      return List.of();
+    }
+
+    // Profiles and submission counts for all supervisees, one query each
+    Map<Long, StudentProfile> profiles = new HashMap<>();
+    studentProfiles.findAllById(studentIds).forEach(p -> profiles.put(p.getUserId(), p));
+    Map<Long, Long> counts = new HashMap<>();
+    theses.countByStudentIds(studentIds).forEach(c -> counts.put(c.getStudentId(), c.getCount()));
+
     List<Map<String, Object>> out = new ArrayList<>();
 
     for (SupervisorAssignment a : assignments_list) {
@@ -139,13 +152,12 @@ public class LecturerController {
       String fullName = student.getEmail();
       
       // Try to get profile info
-      StudentProfile profile = studentProfiles.findById(student.getId()).orElse(null);
+      StudentProfile profile = profiles.get(student.getId());
       if (profile != null && profile.getName() != null) {
         fullName = profile.getName();
       }
       
-      // Count theses for this student
-      long thesisCount = theses.findByStudentId(student.getId()).size();
+      long thesisCount = counts.getOrDefault(student.getId(), 0L);
       
       out.add(Map.of(
         "studentId", student.getId(),
@@ -174,9 +186,15 @@ public class LecturerController {
       .toList();
 
     List<Map<String, Object>> out = new ArrayList<>();
+    if (superviseeIds.isEmpty()) {
+      return out;
+    }
 
+    // one query for all supervisees, grouped back into the lecturer's student order
+    Map<Long, List<Thesis>> byStudent = theses.findByStudentIdIn(superviseeIds).stream()
+      .collect(Collectors.groupingBy(t -> t.getStudent().getId()));
     for (Long sid : superviseeIds) {
-      for (Thesis t : theses.findByStudentId(sid)) {
+      for (Thesis t : byStudent.getOrDefault(sid, List.of())) {
         out.add(Map.of(
           "thesisId", t.getId(),
           "studentId", sid,
@@ -280,6 +298,14 @@ public class LecturerController {
     return out;
   }
 
+  private Map<Long, LecturerProfile> lecturerProfilesOf(List<Long> lecturerIds) {
+    Map<Long, LecturerProfile> out = new HashMap<>();
+    if (!lecturerIds.isEmpty()) {
+      lecturerProfiles.findAllById(lecturerIds).forEach(p -> out.put(p.getUserId(), p));
+    }
+    return out;
+  }
+
   // ─────────────────────────────────────────────────────────────────────
   // DTO records
   // ─────────────────────────────────────────────────────────────────────
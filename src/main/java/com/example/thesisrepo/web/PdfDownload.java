@@ -0,0 +1,180 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.service.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a stored PDF to the response without buffering it in the heap.
+ *
+ * A single {@code bytes=} range is answered with 206 (so PDF viewers can fetch
+ * pages lazily), an unsatisfiable one with 416; multi-range requests get the
+ * whole file. {@code If-Range}, {@code If-None-Match} and
+ * {@code If-Modified-Since} are honoured against the stored file's version.
+ *
+ * Files on local disk are handed to Tomcat's sendfile when the connector
+ * supports it (kernel zero-copy after the handler returns), otherwise sent with
+ * {@link FileChannel#transferTo}. Remote objects are streamed from a ranged read.
+ */
+final class PdfDownload {
+
+  /** Below this, sendfile setup costs more than it saves (Tomcat's DefaultServlet uses the same cut-off). */
+  private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private PdfDownload() {}
+
+  static void send(StoredFile file, String filename, CacheControl cacheControl,
+                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+    long length = file.length();
+    long lastModified = file.lastModified();
+    String etag = "\"" + file.version() + "\"";
+
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null
+        ? CatalogHttpCache.matches(ifNoneMatch, etag)
+        : notModifiedSince(request, lastModified)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    long start = 0;
+    long end = length - 1;
+    String range = request.getHeader(HttpHeaders.RANGE);
+    if (range != null && rangeApplies(request, etag, lastModified)) {
+      long[] r = parseRange(range, length);
+      if (r == null) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        return;
+      }
+      if (r.length == 2) {
+        start = r[0];
+        end = r[1];
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+      }
+    }
+
+    long count = end - start + 1;
+    response.setContentType("application/pdf");
+    response.setContentLengthLong(count);
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+    if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+      return;
+    }
+
+    Path local = file.localPath();
+    if (local == null) {
+      try (InputStream in = file.openRange(start, end)) {
+        in.transferTo(response.getOutputStream());
+      }
+      return;
+    }
+
+    if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, local.toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, end + 1);
+      return;
+    }
+
+    try (FileChannel in = FileChannel.open(local, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = start;
+      long remaining = count;
+      while (remaining > 0) {
+        long n = in.transferTo(position, remaining, out);
+        if (n <= 0) {
+          throw new EOFException("File shrank while sending: " + file);
+        }
+        position += n;
+        remaining -= n;
+      }
+    }
+  }
+
+  /**
+   * Inclusive {start, end} for a single satisfiable range, an empty array when
+   * the header should be ignored (malformed or several ranges), or null when
+   * it cannot be satisfied.
+   */
+  static long[] parseRange(String header, long length) {
+    if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+      return new long[0];
+    }
+    String spec = header.substring(6).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0) {
+      return new long[0];
+    }
+    try {
+      String from = spec.substring(0, dash).trim();
+      String to = spec.substring(dash + 1).trim();
+      if (from.isEmpty()) {
+        // suffix range: the last N bytes
+        long suffix = Long.parseLong(to);
+        if (suffix <= 0 || length == 0) {
+          return null;
+        }
+        return new long[] { Math.max(0, length - suffix), length - 1 };
+      }
+      long start = Long.parseLong(from);
+      long end = to.isEmpty() ? length - 1 : Math.min(Long.parseLong(to), length - 1);
+      if (start >= length) {
+        return null;
+      }
+      if (end < start) {
+        return new long[0];
+      }
+      return new long[] { start, end };
+    } catch (NumberFormatException e) {
+      return new long[0];
+    }
+  }
+
+  // If-Range: only send the range when the client's copy is still the current one
+  private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null || ifRange.isBlank()) {
+      return true;
+    }
+    if (ifRange.startsWith("\"")) {
+      return ifRange.trim().equals(etag);
+    }
+    try {
+      return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static boolean notModifiedSince(HttpServletRequest request, long lastModified) {
+    try {
+      long since = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+      return since >= 0 && lastModified / 1000 <= since / 1000;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+}
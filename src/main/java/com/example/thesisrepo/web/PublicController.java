@@ -1,11 +1,25 @@
 package com.example.thesisrepo.web;
 
+import com.example.thesisrepo.search.PublishedPage;
+import com.example.thesisrepo.search.SearchResultCache;
+import com.example.thesisrepo.thesis.PublicThesisView;
+import com.example.thesisrepo.thesis.Thesis;
 import com.example.thesisrepo.thesis.ThesisRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -13,16 +27,114 @@ import java.util.stream.Collectors;
 public class PublicController {
 
     private final ThesisRepository thesisRepository;
+    private final SearchResultCache resultCache;
+    private final CatalogHttpCache httpCache;
+    private final CatalogSnapshot snapshot;
 
-    public PublicController(ThesisRepository thesisRepository) {
+    public PublicController(ThesisRepository thesisRepository, SearchResultCache resultCache,
+                            CatalogHttpCache httpCache, CatalogSnapshot snapshot) {
         this.thesisRepository = thesisRepository;
+        this.resultCache = resultCache;
+        this.httpCache = httpCache;
+        this.snapshot = snapshot;
     }
 
+    /**
+     * GET /api/public/theses
+     *
+     * Without paging parameters this returns the full list (as the home page expects).
+     * It holds theses whose current status is PUBLISHED, newest first. Before keyset
+     * paging it listed every thesis with a publishedAt, in table order, so a thesis
+     * withdrawn after publication (which keeps its publishedAt) was still listed.
+     * With {@code limit} and/or {@code after=<publishedAt>,<id>} it returns one keyset
+     * page, newest first: { "results": [...], "nextCursor": "..." | null }
+     *
+     * {@code fields=id,title,year} returns only those properties of each entry, e.g. to
+     * leave out the abstract in list views.
+     *
+     * Both shapes are cached until the next publish. Rows are read through the
+     * {@link PublicThesisView} projection, never as entities. Responses carry the
+     * catalog ETag; a matching If-None-Match gets a 304 without any lookup.
+     *
+     * In snapshot mode ({@code public-cache.snapshot}) the full list without
+     * {@code fields} is written from the pre-serialized {@link CatalogSnapshot}
+     * bytes instead, gzipped when the client accepts it.
+     */
     @GetMapping("/theses")
-    public List<PublicThesisDto> getPublishedTheses() {
-        return thesisRepository.findAll().stream()
-                .filter(t -> t.getPublishedAt() != null) // Only published theses
-                .map(t -> new PublicThesisDto(
+    public ResponseEntity<?> getPublishedTheses(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        final KeysetCursor cursor;
+        final Set<String> selected;
+        try {
+            cursor = KeysetCursor.parse(after);
+            selected = SparseFields.parse(fields, PublicThesisDto.class);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        CatalogSnapshot.Snapshot snap = snapshot.current();
+        if (snap != null && after == null && limit == null && selected == null) {
+            return fromSnapshot(snap, ifNoneMatch, acceptEncoding);
+        }
+
+        String etag = httpCache.catalogTag();
+        if (CatalogHttpCache.matches(ifNoneMatch, etag)) {
+            return CatalogHttpCache.notModified(etag, httpCache.listing());
+        }
+
+        if (after == null && limit == null) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(httpCache.listing()).body(resultCache.get("list|all|" + SparseFields.key(selected), () -> toDtos(
+                    thesisRepository.findPublishedPage(
+                            Thesis.ThesisStatus.PUBLISHED, null, null, null, null, null, Pageable.unpaged()),
+                    selected)));
+        }
+
+        int size = KeysetCursor.clampLimit(limit);
+        String key = "list|" + cursor + "|" + size + "|" + SparseFields.key(selected);
+        return ResponseEntity.ok().eTag(etag).cacheControl(httpCache.listing()).body(resultCache.get(key, () -> {
+            PublishedPage page = PublishedPage.of(thesisRepository.findPublishedPage(
+                    Thesis.ThesisStatus.PUBLISHED, null, null, null,
+                    cursor != null ? cursor.publishedAt() : null,
+                    cursor != null ? cursor.id() : null,
+                    Pageable.ofSize(size + 1)), size);
+
+            Map<String, Object> body = new HashMap<>();
+            body.put("results", toDtos(page.items(), selected));
+            body.put("nextCursor", page.hasMore() ? KeysetCursor.after(page.last()).toString() : null);
+            return body;
+        }));
+    }
+
+    private ResponseEntity<?> fromSnapshot(CatalogSnapshot.Snapshot snap, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = CatalogHttpCache.acceptsGzip(acceptEncoding);
+        String etag = gzip ? snap.gzipEtag() : snap.etag();
+        if (CatalogHttpCache.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(httpCache.listing())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(httpCache.listing())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? snap.gzip() : snap.json());
+    }
+
+    static List<Object> toDtos(List<PublicThesisView> theses, Set<String> fields) {
+        return theses.stream()
+                .map(t -> SparseFields.apply(new PublicThesisDto(
                         t.getId(),
                         t.getTitle(),
                         t.getStudentName() != null ? t.getStudentName() : "Unknown",
@@ -30,7 +142,7 @@ public class PublicController {
                         t.getProgram() != null ? t.getProgram() : "Unknown",
                         t.getSubmissionYear() != null ? t.getSubmissionYear() : 2024,
                         t.getAbstractText() != null ? t.getAbstractText() : "No abstract available."
-                ))
+                ), fields))
                 .collect(Collectors.toList());
     }
 
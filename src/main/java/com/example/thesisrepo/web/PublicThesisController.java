@@ -1,13 +1,41 @@
 package com.example.thesisrepo.web;
 
+import com.example.thesisrepo.processing.PreviewStage;
+import com.example.thesisrepo.processing.ProcessingJob;
+import com.example.thesisrepo.processing.ProcessingPipeline;
+import com.example.thesisrepo.search.PublishedPage;
+import com.example.thesisrepo.search.RelatedTheses;
+import com.example.thesisrepo.search.SearchResultCache;
+import com.example.thesisrepo.search.Suggestion;
+import com.example.thesisrepo.search.ThesisSearchService;
+import com.example.thesisrepo.search.ThesisSuggester;
+import com.example.thesisrepo.service.CurrentUserService;
+import com.example.thesisrepo.service.PreviewCache;
+import com.example.thesisrepo.service.StorageService;
+import com.example.thesisrepo.service.StoredFile;
+import com.example.thesisrepo.thesis.PublicThesisView;
 import com.example.thesisrepo.thesis.Thesis;
 import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.user.Role;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +48,18 @@ import java.util.stream.Collectors;
 public class PublicThesisController {
 
   private final ThesisRepository theses;
+  private final ThesisSearchService searchService;
+  private final ThesisSuggester suggester;
+  private final SearchResultCache resultCache;
+  private final RelatedTheses relatedTheses;
+  private final CatalogHttpCache httpCache;
+  private final StorageService storage;
+  private final CurrentUserService current;
+  private final PreviewCache previews;
+  private final ProcessingPipeline processing;
+
+  @Value("${previews.pages:10}")
+  private int previewPages;
 
   /**
    * Search published theses with various filters
@@ -30,7 +70,17 @@ public class PublicThesisController {
    * - year: filter by publication year
    * - faculty: filter by faculty
    * - major: filter by major/program
-   * - author: search by student email or name
+   * - author: student or supervisor name; every word is prefix-matched,
+   *   ignoring case and accents
+   * - limit / after: optional keyset paging (after=<publishedAt>,<id>); when used,
+   *   the response carries "nextCursor" instead of "total"
+   * - scope: "metadata" (default) or "fulltext" to also search the text extracted from the PDF
+   * - fuzzy: when true, keyword terms also match misspelled variants (trigram similarity)
+   * - facets: when true, adds "facets" with per-value counts of year, faculty and major
+   * - fields: optional comma-separated subset of the result fields (e.g. id,title,yearPublished)
+   *
+   * Responses are cached per normalized parameter set until the next publish,
+   * and carry the catalog ETag: a matching If-None-Match gets a 304.
    */
   @GetMapping("/search")
   public ResponseEntity<?> searchPublished(
@@ -38,82 +88,188 @@ public class PublicThesisController {
       @RequestParam(required = false) Integer year,
       @RequestParam(required = false) String faculty,
       @RequestParam(required = false) String major,
-      @RequestParam(required = false) String author
+      @RequestParam(required = false) String author,
+      @RequestParam(required = false) String after,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "metadata") String scope,
+      @RequestParam(defaultValue = "false") boolean fuzzy,
+      @RequestParam(defaultValue = "false") boolean facets,
+      @RequestParam(required = false) String fields,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
   ) {
-    // Get all published theses
-    List<Thesis> results = theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED);
-
-    // Apply filters
-    if (keyword != null && !keyword.isBlank()) {
-      String kw = keyword.toLowerCase();
-      results = results.stream()
-        .filter(t -> 
-          (t.getTitle() != null && t.getTitle().toLowerCase().contains(kw)) ||
-          (t.getAbstractText() != null && t.getAbstractText().toLowerCase().contains(kw)) ||
-          (t.getKeywords() != null && t.getKeywords().toLowerCase().contains(kw))
-        )
-        .collect(Collectors.toList());
-    }
-
-    if (year != null) {
-      results = results.stream()
-        .filter(t -> year.equals(t.getYearPublished()))
-        .collect(Collectors.toList());
-    }
-
-    if (faculty != null && !faculty.isBlank()) {
-      results = results.stream()
-        .filter(t -> faculty.equalsIgnoreCase(t.getFaculty()))
-        .collect(Collectors.toList());
-    }
-
-    if (major != null && !major.isBlank()) {
-      results = results.stream()
-        .filter(t -> major.equalsIgnoreCase(t.getMajor()))
-        .collect(Collectors.toList());
-    }
-
-    if (author != null && !author.isBlank()) {
-      String auth = author.toLowerCase();
-      results = results.stream()
-        .filter(t -> 
-          t.getStudent() != null && 
-          t.getStudent().getEmail() != null &&
-          t.getStudent().getEmail().toLowerCase().contains(auth)
-        )
-        .collect(Collectors.toList());
-    }
-
-    // Transform to summary DTOs (don't expose everything)
-    List<Map<String, Object>> summaries = results.stream()
-      .map(t -> {
-        Map<String, Object> summary = new java.util.HashMap<>();
-        summary.put("id", t.getId());
-        summary.put("title", t.getTitle());
-        summary.put("abstractText", t.getAbstractText());
-        summary.put("keywords", t.getKeywords());
-        summary.put("faculty", t.getFaculty());
-        summary.put("major", t.getMajor());
-        summary.put("yearPublished", t.getYearPublished());
-        summary.put("publishedAt", t.getPublishedAt() != null ? t.getPublishedAt().toString() : null);
-        summary.put("author", t.getStudent() != null ? t.getStudent().getEmail() : null);
-        return summary;
-      })
+    boolean paged = after != null || limit != null;
+    boolean fullText = "fulltext".equalsIgnoreCase(scope);
+    final KeysetCursor cursor;
+    final Set<String> selected;
+    try {
+      cursor = KeysetCursor.parse(after);
+      selected = SparseFields.parse(fields, ThesisSummary.class);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    String etag = httpCache.catalogTag();
+    if (CatalogHttpCache.matches(ifNoneMatch, etag)) {
+      return CatalogHttpCache.notModified(etag, httpCache.search());
+    }
+
+    String cacheKey = String.join("|", "search",
+      normalize(keyword), String.valueOf(year), normalize(faculty), normalize(major), normalize(author),
+      String.valueOf(after), paged ? String.valueOf(KeysetCursor.clampLimit(limit)) : "all",
+      String.valueOf(fullText), String.valueOf(fuzzy), String.valueOf(facets), SparseFields.key(selected));
+
+    return ResponseEntity.ok().eTag(etag).cacheControl(httpCache.search()).body(resultCache.get(cacheKey, () -> runSearch(
+      keyword, year, faculty, major, author, paged, cursor, limit, fullText, fuzzy, facets, selected)));
+  }
+
+  private Map<String, Object> runSearch(String keyword, Integer year, String faculty, String major, String author,
+                                        boolean paged, KeysetCursor cursor, Integer limit,
+                                        boolean fullText, boolean fuzzy, boolean facets, Set<String> fields) {
+    // Keyword, year, faculty and major go to the configured search backend
+    List<PublicThesisView> results;
+    PublishedPage page = null;
+    if (paged) {
+      page = searchService.searchPage(keyword, fuzzy, fullText, author, year, faculty, major,
+        cursor != null ? cursor.publishedAt() : null,
+        cursor != null ? cursor.id() : null,
+        KeysetCursor.clampLimit(limit));
+      results = page.items();
+    } else {
+      results = searchService.search(keyword, fuzzy, fullText, author, year, faculty, major);
+    }
+
+    // Public summary only (never the file path or status), optionally trimmed to the requested fields
+    List<Object> summaries = results.stream()
+      .map(v -> SparseFields.apply(ThesisSummary.of(v), fields))
       .collect(Collectors.toList());
 
+    Map<String, Object> body = new HashMap<>();
+    body.put("results", summaries);
+    if (paged) {
+      body.put("nextCursor", page.hasMore() ? KeysetCursor.after(page.last()).toString() : null);
+    } else {
+      body.put("total", summaries.size());
+    }
+    if (facets) {
+      body.put("facets", searchService.facetCounts(keyword, fuzzy, fullText, author, year, faculty, major));
+    }
+    return body;
+  }
+
+  private static String normalize(String s) {
+    return s == null ? "" : s.trim().toLowerCase();
+  }
+
+  record ThesisSummary(
+      Long id,
+      String title,
+      String abstractText,
+      String keywords,
+      String faculty,
+      String major,
+      Integer yearPublished,
+      String publishedAt,
+      String author
+  ) {
+    static ThesisSummary of(PublicThesisView v) {
+      return new ThesisSummary(
+        v.getId(),
+        v.getTitle(),
+        v.getAbstractText(),
+        v.getKeywords(),
+        v.getFaculty(),
+        v.getMajor(),
+        v.getYearPublished(),
+        v.getPublishedAt() != null ? v.getPublishedAt().toString() : null,
+        v.getAuthorEmail());
+    }
+  }
+
+  /**
+   * Typeahead completions for the search box
+   * GET /api/public/theses/suggest?prefix=cyber&limit=5
+   *
+   * Served from an in-memory trie over titles, keywords, student and supervisor names.
+   */
+  @GetMapping("/suggest")
+  public ResponseEntity<?> suggest(
+      @RequestParam String prefix,
+      @RequestParam(required = false) Integer limit
+  ) {
+    List<Suggestion> suggestions = suggester.suggest(prefix, limit);
     return ResponseEntity.ok(Map.of(
-      "total", summaries.size(),
-      "results", summaries
+      "prefix", prefix,
+      "suggestions", suggestions
+    ));
+  }
+
+  /**
+   * Theses most similar to a published thesis, for the detail page
+   * GET /api/public/theses/{id}/related?limit=5
+   *
+   * Neighbours are precomputed from TF-IDF vectors over abstract and keywords;
+   * nothing is scored on request. Each result is a search summary plus "score";
+   * {@code fields} trims the summaries as in search. Conditional on the catalog ETag.
+   */
+  @GetMapping("/{id}/related")
+  public ResponseEntity<?> related(
+      @PathVariable Long id,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String fields,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    final Set<String> selected;
+    try {
+      selected = SparseFields.parse(fields, ThesisSummary.class);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+    String etag = httpCache.catalogTag();
+    if (CatalogHttpCache.matches(ifNoneMatch, etag)) {
+      return CatalogHttpCache.notModified(etag, httpCache.related());
+    }
+    List<RelatedTheses.Neighbour> neighbours = relatedTheses.related(id);
+    if (neighbours == null) {
+      return ResponseEntity.notFound().build();
+    }
+    if (limit != null && limit >= 0 && limit < neighbours.size()) {
+      neighbours = neighbours.subList(0, limit);
+    }
+
+    List<PublicThesisView> views = searchService.loadInOrder(
+      neighbours.stream().map(RelatedTheses.Neighbour::thesisId).toList());
+    Map<Long, Float> scores = new HashMap<>();
+    neighbours.forEach(n -> scores.put(n.thesisId(), n.score()));
+    List<Map<String, Object>> results = new ArrayList<>();
+    for (PublicThesisView v : views) {
+      Map<String, Object> summary = SparseFields.toMap(ThesisSummary.of(v), selected);
+      summary.put("score", scores.get(v.getId()));
+      results.add(summary);
+    }
+
+    return ResponseEntity.ok().eTag(etag).cacheControl(httpCache.related()).body(Map.of(
+      "id", id,
+      "results", results
     ));
   }
 
   /**
    * Get details of a specific published thesis
    * GET /api/public/theses/{id}
+   *
+   * The ETag is the thesis's own version, so revalidation (304) never reads the row.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<?> getPublishedThesis(@PathVariable Long id) {
-    var thesis = theses.findById(id).orElse(null);
+  public ResponseEntity<?> getPublishedThesis(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    String etag = httpCache.thesisTag(id);
+    if (CatalogHttpCache.matches(ifNoneMatch, etag)) {
+      return CatalogHttpCache.notModified(etag, httpCache.detail());
+    }
+
+    var thesis = theses.findPublicViewById(id).orElse(null);
     
     if (thesis == null) {
       return ResponseEntity.notFound().build();
@@ -126,7 +282,7 @@ public class PublicThesisController {
       );
     }
 
-    Map<String, Object> details = new java.util.HashMap<>();
+    Map<String, Object> details = new HashMap<>();
     details.put("id", thesis.getId());
     details.put("title", thesis.getTitle());
     details.put("abstractText", thesis.getAbstractText());
@@ -135,9 +291,133 @@ public class PublicThesisController {
     details.put("major", thesis.getMajor());
     details.put("yearPublished", thesis.getYearPublished());
     details.put("publishedAt", thesis.getPublishedAt() != null ? thesis.getPublishedAt().toString() : null);
-    details.put("author", thesis.getStudent() != null ? thesis.getStudent().getEmail() : null);
-    details.put("filePath", thesis.getFilePath());
+    details.put("author", thesis.getAuthorEmail());
+    details.put("fileUrl", "/api/public/theses/" + thesis.getId() + "/file"); // never the storage locator
 
-    return ResponseEntity.ok(details);
+    return ResponseEntity.ok().eTag(etag).cacheControl(httpCache.detail()).body(details);
+  }
+
+  /**
+   * The thesis PDF
+   * GET /api/public/theses/{id}/file
+   *
+   * Published theses are open to everyone; an unpublished one only to its
+   * student and to admins. Supports Range (206) so viewers can load pages
+   * lazily, and is streamed from disk rather than read into memory.
+   */
+  @GetMapping("/{id}/file")
+  public ResponseEntity<?> download(@PathVariable Long id,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+    var thesis = theses.findPublicViewById(id).orElse(null);
+    if (thesis == null) {
+      return ResponseEntity.notFound().build();
+    }
+
+    ResponseEntity<?> denied = denyUnlessVisible(thesis);
+    if (denied != null) {
+      return denied;
+    }
+    boolean published = thesis.getCurrentStatus() == Thesis.ThesisStatus.PUBLISHED;
+
+    StoredFile file = storage.open(thesis.getFilePath());
+    if (file == null) {
+      return ResponseEntity.notFound().build();
+    }
+
+    PdfDownload.send(file, "thesis-" + id + ".pdf",
+      published ? httpCache.detail() : CacheControl.noCache().cachePrivate(),
+      request, response);
+    return null;
+  }
+
+  /**
+   * First-page thumbnail (JPEG)
+   * GET /api/public/theses/{id}/thumbnail
+   *
+   * Rendered once after submission and served from the on-disk preview cache,
+   * under the same access rules as the PDF. 202 (try again shortly) while it is
+   * being rendered or re-rendered after eviction; 404 if the PDF cannot be rendered.
+   */
+  @GetMapping("/{id}/thumbnail")
+  public ResponseEntity<?> thumbnail(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    return preview(id, PreviewCache.thumbnailKey(id), 1, ifNoneMatch);
+  }
+
+  /**
+   * Low-resolution preview of one page (JPEG), for the first {@code previews.pages} pages
+   * GET /api/public/theses/{id}/pages/{page}/preview
+   *
+   * Same caching and status codes as the thumbnail.
+   */
+  @GetMapping("/{id}/pages/{page}/preview")
+  public ResponseEntity<?> pagePreview(
+      @PathVariable Long id,
+      @PathVariable int page,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    if (page < 1 || page > previewPages) {
+      return ResponseEntity.notFound().build();
+    }
+    return preview(id, PreviewCache.pageKey(id, page), page, ifNoneMatch);
+  }
+
+  private ResponseEntity<?> preview(Long id, String key, int page, String ifNoneMatch) {
+    var thesis = theses.findPublicViewById(id).orElse(null);
+    if (thesis == null) {
+      return ResponseEntity.notFound().build();
+    }
+    ResponseEntity<?> denied = denyUnlessVisible(thesis);
+    if (denied != null) {
+      return denied;
+    }
+    CacheControl cacheControl = thesis.getCurrentStatus() == Thesis.ThesisStatus.PUBLISHED
+      ? httpCache.detail() : CacheControl.noCache().cachePrivate();
+
+    Path image = previews.get(key);
+    if (image != null) {
+      try {
+        // a thesis's PDF never changes, so neither do its renders
+        String etag = "\"pv-" + Long.toHexString(Files.size(image)) + "\"";
+        if (CatalogHttpCache.matches(ifNoneMatch, etag)) {
+          return CatalogHttpCache.notModified(etag, cacheControl);
+        }
+        return ResponseEntity.ok()
+          .eTag(etag)
+          .cacheControl(cacheControl)
+          .contentType(MediaType.IMAGE_JPEG)
+          .body(new FileSystemResource(image));
+      } catch (IOException e) {
+        // evicted just now; render it again below
+      }
+    }
+
+    Integer pageCount = page > 1 ? theses.findPageCount(id) : null;
+    if (pageCount != null && page > pageCount) {
+      return ResponseEntity.notFound().build();
+    }
+    if (processing.rerun(id, PreviewStage.NAME) == ProcessingJob.Status.FAILED) {
+      return ResponseEntity.status(404).body(Map.of("error", "No preview available for this thesis"));
+    }
+    return ResponseEntity.accepted()
+      .header(HttpHeaders.RETRY_AFTER, "2")
+      .cacheControl(CacheControl.noStore())
+      .build();
+  }
+
+  /** 403 for an unpublished thesis unless the caller is its student or an admin, else null. */
+  private ResponseEntity<?> denyUnlessVisible(PublicThesisView thesis) {
+    if (thesis.getCurrentStatus() == Thesis.ThesisStatus.PUBLISHED) {
+      return null;
+    }
+    var me = current.currentUser().orElse(null);
+    boolean allowed = me != null
+      && (me.getRole() == Role.ADMIN || me.getEmail().equalsIgnoreCase(thesis.getAuthorEmail()));
+    return allowed ? null : ResponseEntity.status(403).body(
+      Map.of("error", "This thesis is not publicly available")
+    );
   }
 }
@@ -0,0 +1,69 @@
+package com.example.thesisrepo.web;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.*;
+
+/**
+ * {@code fields=} support for public list endpoints: a comma-separated subset
+ * of a response record's components, e.g. {@code fields=id,title,yearPublished}
+ * to leave out the long abstract. Without the parameter the record itself is
+ * returned unchanged.
+ */
+final class SparseFields {
+
+  private SparseFields() {
+  }
+
+  /**
+   * Requested field names in declaration order, or null for "all fields".
+   *
+   * @throws IllegalArgumentException for names that are not components of {@code type}
+   */
+  static Set<String> parse(String raw, Class<? extends Record> type) {
+    if (raw == null || raw.isBlank()) {
+      return null;
+    }
+    Set<String> requested = new HashSet<>();
+    for (String f : raw.split(",")) {
+      if (!f.isBlank()) requested.add(f.trim());
+    }
+    Set<String> out = new LinkedHashSet<>();
+    for (RecordComponent c : type.getRecordComponents()) {
+      if (requested.remove(c.getName())) out.add(c.getName());
+    }
+    if (!requested.isEmpty()) {
+      throw new IllegalArgumentException("Unknown fields: " + String.join(", ", new TreeSet<>(requested)));
+    }
+    return out;
+  }
+
+  /** The record itself, or a map holding only the requested components. */
+  static Object apply(Record value, Set<String> fields) {
+    return fields == null ? value : toMap(value, fields);
+  }
+
+  /** The requested components (all of them for null) as an ordered, mutable map. */
+  static Map<String, Object> toMap(Record value, Set<String> fields) {
+    Map<String, Object> out = new LinkedHashMap<>();
+    for (RecordComponent c : value.getClass().getRecordComponents()) {
+      if (fields == null || fields.contains(c.getName())) {
+        out.put(c.getName(), read(c, value));
+      }
+    }
+    return out;
+  }
+
+  /** Stable cache-key fragment for a parsed field set. */
+  static String key(Set<String> fields) {
+    return fields == null ? "*" : String.join(",", fields);
+  }
+
+  private static Object read(RecordComponent c, Record value) {
+    try {
+      return c.getAccessor().invoke(value);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Cannot read " + c.getName(), e);
+    }
+  }
+}
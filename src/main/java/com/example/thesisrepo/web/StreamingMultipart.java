@@ -0,0 +1,42 @@
+package com.example.thesisrepo.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileUpload;
+import org.apache.tomcat.util.http.fileupload.impl.SizeException;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import java.io.IOException;
+
+/**
+ * Reads a multipart/form-data body one part at a time straight off the request,
+ * so a large file part can be stored in a single pass instead of first being
+ * spooled to a temp file by the multipart resolver (which
+ * {@code spring.servlet.multipart.resolve-lazily} keeps from touching the body).
+ *
+ * Uses the streaming parser bundled with the embedded Tomcat; the
+ * {@code spring.servlet.multipart} size limits still apply.
+ */
+final class StreamingMultipart {
+
+  private StreamingMultipart() {}
+
+  /** Each part must be read (or skipped) before moving to the next. */
+  static FileItemIterator parts(HttpServletRequest request, MultipartProperties limits) throws IOException {
+    FileUpload upload = new FileUpload();
+    upload.setFileSizeMax(limits.getMaxFileSize().toBytes());
+    upload.setSizeMax(limits.getMaxRequestSize().toBytes());
+    return upload.getItemIterator(new ServletRequestContext(request));
+  }
+
+  /** Whether {@code e} means a part or the whole request went over its limit. */
+  static boolean tooLarge(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof SizeException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -2,20 +2,31 @@ package com.example.thesisrepo.web;
 
 import com.example.thesisrepo.profile.LecturerProfile;
 import com.example.thesisrepo.profile.LecturerProfileRepository;
+import com.example.thesisrepo.processing.ProcessingJob;
+import com.example.thesisrepo.processing.ProcessingPipeline;
 import com.example.thesisrepo.service.CurrentUserService;
 import com.example.thesisrepo.service.StorageService;
+import com.example.thesisrepo.service.UploadSessionService;
+import com.example.thesisrepo.storage.UploadSession;
 import com.example.thesisrepo.thesis.*;
 import com.example.thesisrepo.user.User;
 import com.example.thesisrepo.user.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
@@ -28,11 +39,16 @@ public class ThesisController {
   private final ThesisRepository theses;
   private final CurrentUserService current;
   private final StorageService storage;
+  private final ProcessingPipeline processing;
+  private final UploadSessionService uploads;
   private final ThesisChecklistRepository checklistRepo;
   private final ApprovalRepository approvalRepo;
   private final LecturerProfileRepository lecturerProfiles;
   private final UserRepository users;
   private final SupervisorAssignmentRepository supervisorAssignments;
+  private final UploadMetrics uploadMetrics;
+  private final MultipartProperties multipartLimits;
+  private final ObjectMapper objectMapper;
 
   /** Student's own submissions (multiple attempts supported). */
   @GetMapping("/mine")
@@ -42,26 +58,209 @@ public class ThesisController {
     return theses.findByStudentId(me.getId());
   }
 
-  /** Submit a thesis (new attempt). */
+  /**
+   * Submit a thesis (new attempt): multipart with a "meta" JSON part and a "file"
+   * PDF part. The parts are read straight off the request, so the PDF is streamed
+   * into storage in one pass rather than spooled to a temp file and copied.
+   */
   @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @PreAuthorize("hasRole('STUDENT')")
-  public ResponseEntity<?> submit(@RequestPart("meta") SubmitMeta meta,
-                                  @RequestPart("file") MultipartFile file) {
+  public ResponseEntity<?> submit(HttpServletRequest request) {
     var me = current.requireCurrentUser();
 
-    if (file == null || file.isEmpty()) {
-      return ResponseEntity.badRequest().body(Map.of("error", "PDF file is required"));
+    SubmitMeta meta = null;
+    String locator = null;
+    try {
+      var parts = StreamingMultipart.parts(request, multipartLimits);
+      while (parts.hasNext()) {
+        var part = parts.next();
+        if ("meta".equals(part.getFieldName()) && meta == null) {
+          try (InputStream in = part.openStream()) {
+            meta = objectMapper.readValue(in, SubmitMeta.class);
+          }
+        } else if ("file".equals(part.getFieldName()) && locator == null) {
+          PushbackInputStream in = new PushbackInputStream(part.openStream());
+          int first = in.read();
+          if (first < 0) {
+            continue; // empty file part: same as none
+          }
+          in.unread(first);
+
+          var upload = uploadMetrics.start("multipart", in);
+          try {
+            locator = storage.savePdf(upload, newObjectKey());
+            upload.finish(true);
+          } catch (IOException | RuntimeException e) {
+            upload.finish(false);
+            if (StreamingMultipart.tooLarge(e)) {
+              return tooLarge();
+            }
+            return ResponseEntity.internalServerError()
+              .body(Map.of("error", "File save failed", "details", String.valueOf(e.getMessage())));
+          }
+        }
+      }
+    } catch (IOException e) {
+      release(locator, e);
+      if (StreamingMultipart.tooLarge(e)) {
+        return tooLarge();
+      }
+      return ResponseEntity.badRequest()
+        .body(Map.of("error", "Malformed upload", "details", String.valueOf(e.getMessage())));
+    }
+
+    if (locator == null || meta == null) {
+      release(locator, null);
+      return ResponseEntity.badRequest()
+        .body(Map.of("error", locator == null ? "PDF file is required" : "meta is required"));
+    }
+    return ResponseEntity.ok(createSubmission(me, meta, locator));
+  }
+
+  private ResponseEntity<?> tooLarge() {
+    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+      .body(Map.of("error", "PDF file is too large",
+        "maxSize", multipartLimits.getMaxFileSize().toBytes()));
+  }
+
+  // ─────────────────────────────────────────────────────────────────────
+  // Resumable upload for large PDFs:
+  //   POST /uploads {size} → PUT /uploads/{id}?offset=N (raw bytes, repeat)
+  //   → GET /uploads/{id} after a dropped connection → POST /uploads/{id}/complete {meta}
+  // ─────────────────────────────────────────────────────────────────────
+
+  /** Start a resumable upload; returns the upload id to PUT chunks to. */
+  @PostMapping("/uploads")
+  @PreAuthorize("hasRole('STUDENT')")
+  public ResponseEntity<?> startUpload(@RequestBody StartUploadRequest req) {
+    var me = current.requireCurrentUser();
+    if (req.getSize() == null) {
+      return ResponseEntity.badRequest().body(Map.of("error", "size is required"));
+    }
+    try {
+      return ResponseEntity.ok(uploadStatus(uploads.create(me.getId(), req.getSize())));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (IOException e) {
+      return ResponseEntity.internalServerError()
+        .body(Map.of("error", "Upload could not be started", "details", e.getMessage()));
+    }
+  }
+
+  /**
+   * Append (or re-send) a chunk at {@code offset}, which may not be past the
+   * received offset (409 with the current offset otherwise).
+   */
+  @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  @PreAuthorize("hasRole('STUDENT')")
+  public ResponseEntity<?> uploadChunk(@PathVariable String uploadId,
+                                       @RequestParam long offset,
+                                       HttpServletRequest request) throws IOException {
+    var me = current.requireCurrentUser();
+    var session = uploads.find(uploadId, me.getId()).orElse(null);
+    if (session == null) {
+      return ResponseEntity.notFound().build();
+    }
+    if (offset > session.getReceivedBytes()) {
+      var body = new HashMap<>(uploadStatus(session));
+      body.put("error", "offset is past the received data");
+      return ResponseEntity.status(409).body(body);
+    }
+    var upload = uploadMetrics.start("resumable", request.getInputStream());
+    try {
+      uploads.write(session, offset, request.getContentLengthLong(), upload);
+      upload.finish(true);
+    } catch (IllegalArgumentException e) {
+      var body = new HashMap<>(uploadStatus(session));
+      body.put("error", e.getMessage());
+      return ResponseEntity.badRequest().body(body);
+    } catch (IllegalStateException e) {
+      var body = new HashMap<>(uploadStatus(session));
+      body.put("error", e.getMessage());
+      return ResponseEntity.status(409).body(body);
+    } finally {
+      upload.finish(false); // no-op once recorded as stored
+    }
+    return ResponseEntity.ok(uploadStatus(session));
+  }
+
+  /** Received offset of an upload, to resume from after a dropped connection. */
+  @GetMapping("/uploads/{uploadId}")
+  @PreAuthorize("hasRole('STUDENT')")
+  public ResponseEntity<?> getUpload(@PathVariable String uploadId) {
+    var me = current.requireCurrentUser();
+    return uploads.find(uploadId, me.getId())
+      .<ResponseEntity<?>>map(session -> ResponseEntity.ok(uploadStatus(session)))
+      .orElse(ResponseEntity.notFound().build());
+  }
+
+  /** Submit the fully uploaded PDF as a new thesis attempt (same result as the multipart submit). */
+  @PostMapping("/uploads/{uploadId}/complete")
+  @PreAuthorize("hasRole('STUDENT')")
+  public ResponseEntity<?> completeUpload(@PathVariable String uploadId, @RequestBody SubmitMeta meta) {
+    var me = current.requireCurrentUser();
+    var session = uploads.find(uploadId, me.getId()).orElse(null);
+    if (session == null) {
+      return ResponseEntity.notFound().build();
+    }
+    Path part;
+    try {
+      part = uploads.beginCompletion(session);
+    } catch (IllegalStateException e) {
+      var body = new HashMap<>(uploadStatus(session));
+      body.put("error", e.getMessage());
+      return ResponseEntity.status(409).body(body);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (IOException e) {
+      return ResponseEntity.internalServerError()
+        .body(Map.of("error", "File save failed", "details", e.getMessage()));
     }
 
-    String objectKey = LocalDate.now().toString().substring(0, 7) + "/" + UUID.randomUUID() + ".pdf";
-    String locator;
+    String locator = null;
     try {
-      locator = storage.savePdf(file, objectKey);
+      locator = storage.savePdf(part, newObjectKey());
+      uploads.discard(session);
     } catch (Exception e) {
+      uploads.abandonCompletion(session);
+      release(locator, e);
       return ResponseEntity.internalServerError()
         .body(Map.of("error", "File save failed", "details", e.getMessage()));
     }
+    return ResponseEntity.ok(createSubmission(me, meta, locator));
+  }
+
+  /** Abandon an upload and free its space. */
+  @DeleteMapping("/uploads/{uploadId}")
+  @PreAuthorize("hasRole('STUDENT')")
+  public ResponseEntity<?> cancelUpload(@PathVariable String uploadId) throws IOException {
+    var me = current.requireCurrentUser();
+    var session = uploads.find(uploadId, me.getId()).orElse(null);
+    if (session == null) {
+      return ResponseEntity.notFound().build();
+    }
+    try {
+      uploads.cancel(session);
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+    }
+    return ResponseEntity.noContent().build();
+  }
+
+  private static Map<String, Object> uploadStatus(UploadSession session) {
+    return Map.of(
+      "uploadId", session.getId(),
+      "offset", session.getReceivedBytes(),
+      "size", session.getSizeBytes()
+    );
+  }
+
+  private static String newObjectKey() {
+    return LocalDate.now().toString().substring(0, 7) + "/" + UUID.randomUUID() + ".pdf";
+  }
 
+  /** Saves the new attempt for a stored PDF and queues its processing stages. */
+  private Map<String, Object> createSubmission(User me, SubmitMeta meta, String locator) {
     var t = Thesis.builder()
       .student(me)
       .title(meta.getTitle())
@@ -74,13 +273,48 @@ public class ThesisController {
       .currentStatus(Thesis.ThesisStatus.LIBRARY_REVIEW) // goes to library queue
       .build();
 
-    theses.save(t);
+    try {
+      theses.save(t);
+    } catch (RuntimeException e) {
+      release(locator, e);
+      throw e;
+    }
+    processing.submit(t); // rows only; the work never delays the upload response
 
-    return ResponseEntity.ok(Map.of(
+    return Map.of(
       "id", t.getId(),
       "status", t.getCurrentStatus(),
       "file", t.getFilePath()
-    ));
+    );
+  }
+
+  // give back the stored file's reference so a shared blob can still be reclaimed
+  private void release(String locator, Exception cause) {
+    if (locator == null) {
+      return;
+    }
+    try {
+      storage.release(locator);
+    } catch (IOException e) {
+      if (cause != null) {
+        cause.addSuppressed(e);
+      }
+    }
+  }
+
+  /** Post-submission processing of one of my theses, stage by stage */
+  @GetMapping("/{id}/processing")
+  @PreAuthorize("hasRole('STUDENT')")
+  public ResponseEntity<?> getProcessing(@PathVariable Long id) {
+    var me = current.requireCurrentUser();
+    var thesis = theses.findById(id).orElse(null);
+    if (thesis == null) {
+      return ResponseEntity.notFound().build();
+    }
+    if (!thesis.getStudent().getId().equals(me.getId())) {
+      return ResponseEntity.status(403).body(Map.of("error", "Not your thesis"));
+    }
+    return ResponseEntity.ok(processing.status(id).stream().map(ProcessingStatusDto::from).toList());
   }
 
   /** Get feedback (checklist + approval notes) for a specific thesis */
@@ -150,10 +384,13 @@ public class ThesisController {
   public List<SupervisorDto> getMySupervisors() {
     var me = current.requireCurrentUser();
     List<SupervisorAssignment> assignments = supervisorAssignments.findByStudent(me);
+    Map<Long, LecturerProfile> profiles = assignments.isEmpty() ? Map.of()
+      : lecturerProfiles.findAllById(assignments.stream().map(sa -> sa.getLecturer().getId()).toList()).stream()
+          .collect(Collectors.toMap(LecturerProfile::getUserId, p -> p));
     
     return assignments.stream()
       .map(sa -> {
-        var lecturerProfile = lecturerProfiles.findById(sa.getLecturer().getId()).orElse(null);
+        var lecturerProfile = profiles.get(sa.getLecturer().getId());
         String lecturerName = lecturerProfile != null ? lecturerProfile.getName() : null;
         String department = lecturerProfile != null ? lecturerProfile.getDepartment() : null;
         String faculty = lecturerProfile != null ? lecturerProfile.getFaculty() : null;
@@ -203,11 +440,24 @@ public class ThesisController {
   record LecturerSummaryDto(Long id, String email, String name, String department, String faculty, String major) {}
   record SupervisorDto(Long lecturerId, String email, String name, String department, String faculty, String major, boolean roleMain) {}
 
+  // what a student sees of a processing job; worker, lock and error details stay with the admin view
+  record ProcessingStatusDto(String stage, ProcessingJob.Status status, int attempts, Instant updatedAt) {
+    static ProcessingStatusDto from(ProcessingJob j) {
+      return new ProcessingStatusDto(j.getStage(), j.getStatus(), j.getAttempts(), j.getUpdatedAt());
+    }
+  }
+
   @Data
   public static class AddSupervisorRequest {
     private String email;
   }
 
+  @Data
+  public static class StartUploadRequest {
+    /** Total PDF size in bytes */
+    private Long size;
+  }
+
   @Data
   public static class SubmitMeta {
     @NotBlank private String title;
@@ -0,0 +1,98 @@
+package com.example.thesisrepo.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF upload meters, tagged by {@code source} (multipart, resumable):
+ *  - uploads.duration: time from the first byte read to stored (also tagged by outcome)
+ *  - uploads.size: bytes received per request (per chunk for resumable uploads)
+ *  - uploads.throughput: bytes per second per request
+ */
+@Component
+class UploadMetrics {
+
+  private final MeterRegistry registry;
+
+  UploadMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /** Counts what is read through the returned stream; call {@link Upload#finish} once it is stored. */
+  Upload start(String source, InputStream body) {
+    return new Upload(source, body);
+  }
+
+  final class Upload extends FilterInputStream {
+    private final String source;
+    private final long started = System.nanoTime();
+    private long bytes;
+    private boolean finished;
+
+    private Upload(String source, InputStream in) {
+      super(in);
+      this.source = source;
+    }
+
+    long bytes() {
+      return bytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) bytes++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      int n = super.read(buf, off, len);
+      if (n > 0) bytes += n;
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      bytes += skipped;
+      return skipped;
+    }
+
+    void finish(boolean stored) {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      long nanos = System.nanoTime() - started;
+      Timer.builder("uploads.duration")
+        .tag("source", source)
+        .tag("outcome", stored ? "success" : "failure")
+        .register(registry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+      if (!stored) {
+        return;
+      }
+      DistributionSummary.builder("uploads.size")
+        .baseUnit(BaseUnits.BYTES)
+        .tag("source", source)
+        .register(registry)
+        .record(bytes);
+      if (nanos > 0) {
+        DistributionSummary.builder("uploads.throughput")
+          .baseUnit("bytes.per.second")
+          .tag("source", source)
+          .register(registry)
+          .record(bytes * 1e9 / nanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,10 @@
+-- Full-text search vector over the public metadata, maintained by PostgreSQL itself.
+-- 'simple' config because titles/abstracts mix Bahasa Indonesia and English.
+ALTER TABLE thesis ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(keywords, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(abstract_text, '')), 'C')
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_thesis_search_vector ON thesis USING GIN (search_vector);
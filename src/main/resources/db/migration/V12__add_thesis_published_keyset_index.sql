@@ -0,0 +1,4 @@
+-- Backs keyset pagination of the public catalog:
+-- WHERE current_status = 'PUBLISHED' ORDER BY published_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_thesis_status_published
+  ON thesis (current_status, published_at DESC, id DESC);
@@ -0,0 +1,10 @@
+-- Extracted PDF text bookkeeping; the text itself is a sidecar file under file.storage-root
+CREATE TABLE IF NOT EXISTS thesis_full_text (
+  thesis_id bigint primary key references thesis(id),
+  status varchar(32) not null,
+  page_count integer,
+  text_bytes bigint,
+  text_path text,
+  error text,
+  extracted_at timestamp
+);
@@ -0,0 +1,9 @@
+-- Content-addressed PDF blobs: one row (and one file) per distinct SHA-256,
+-- ref_count = number of thesis.file_path values pointing at it
+CREATE TABLE IF NOT EXISTS stored_blob (
+  sha256 varchar(64) primary key,
+  size_bytes bigint not null,
+  locator text not null,
+  ref_count integer not null,
+  created_at timestamp not null
+);
@@ -0,0 +1,9 @@
+-- Resumable uploads in progress; the bytes are in <storage-root>/.uploads/<id>.part
+CREATE TABLE IF NOT EXISTS upload_session (
+  id varchar(36) primary key,
+  student_id bigint not null references users(id),
+  size_bytes bigint not null,
+  received_bytes bigint not null,
+  created_at timestamp not null,
+  updated_at timestamp not null
+);
@@ -0,0 +1,20 @@
+-- Post-submission work (page count, text extraction, ...): one row per thesis and stage,
+-- claimed by the processing workers of whichever node gets there first
+CREATE TABLE IF NOT EXISTS processing_job (
+  id bigserial primary key,
+  thesis_id bigint not null references thesis(id) on delete cascade,
+  stage varchar(32) not null,
+  status varchar(16) not null,
+  attempts integer not null default 0,
+  run_after timestamp not null,
+  locked_by varchar(128),
+  locked_at timestamp,
+  last_error text,
+  created_at timestamp not null,
+  updated_at timestamp not null,
+  unique (thesis_id, stage)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processing_job_runnable ON processing_job (status, run_after);
+
+ALTER TABLE thesis ADD COLUMN IF NOT EXISTS page_count integer;
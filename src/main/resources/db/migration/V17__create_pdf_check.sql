@@ -0,0 +1,18 @@
+-- What the format checker read from each distinct PDF (by SHA-256), so an
+-- unchanged re-submission is not parsed again
+CREATE TABLE IF NOT EXISTS pdf_check (
+  sha256 varchar(64) primary key,
+  version integer not null,
+  page_count integer not null,
+  fonts text,
+  unembedded_fonts text,
+  watermark_pages integer not null,
+  title_text text,
+  approval_page integer,
+  signature_page integer,
+  checked_at timestamp not null
+);
+
+-- The checker's unconfirmed suggestion, next to the librarian's tick
+ALTER TABLE thesis_checklist ADD COLUMN IF NOT EXISTS suggested boolean NOT NULL DEFAULT false;
+ALTER TABLE thesis_checklist ADD COLUMN IF NOT EXISTS suggestion_note varchar(500);
@@ -0,0 +1,3 @@
+-- Serializes work on one resumable upload: a chunk write or the completion
+-- claims the session by moving it out of UPLOADING with a conditional update
+ALTER TABLE upload_session ADD COLUMN IF NOT EXISTS status varchar(16) NOT NULL DEFAULT 'UPLOADING';
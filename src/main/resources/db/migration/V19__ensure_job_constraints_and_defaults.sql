@@ -0,0 +1,6 @@
+-- Tables created by Hibernate (ddl-auto=update) before Flyway ran skipped the
+-- CREATE TABLE IF NOT EXISTS of V13-V18, and with it their constraints and defaults
+CREATE UNIQUE INDEX IF NOT EXISTS uq_processing_job_thesis_stage ON processing_job (thesis_id, stage);
+ALTER TABLE processing_job ALTER COLUMN attempts SET DEFAULT 0;
+ALTER TABLE upload_session ALTER COLUMN status SET DEFAULT 'UPLOADING';
+ALTER TABLE thesis_checklist ALTER COLUMN suggested SET DEFAULT false;
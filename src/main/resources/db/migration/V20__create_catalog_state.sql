@@ -0,0 +1,6 @@
+-- Version of the public catalog shared by all nodes (one row, id 1); bumped on every
+-- publish, withdrawal or text extraction, and polled by nodes to notice each other's
+CREATE TABLE IF NOT EXISTS catalog_state (
+  id integer primary key,
+  version bigint not null
+);
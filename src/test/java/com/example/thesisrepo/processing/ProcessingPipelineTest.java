@@ -0,0 +1,165 @@
+package com.example.thesisrepo.processing;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The job table as a queue, against the H2 test database. Each pipeline is a
+ * "node" whose executor only collects the work it is handed, so a test decides
+ * when a claimed job actually runs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProcessingPipelineTest {
+
+  private static final Duration BACKOFF = Duration.ofMinutes(1);
+  private static final AtomicLong THESIS_IDS = new AtomicLong(1_000_000);
+
+  @Autowired ProcessingJobRepository jobs;
+
+  private final ThesisRepository theses = mock(ThesisRepository.class);
+  private final List<Runnable> handedOut = new ArrayList<>();
+  private final Stage flaky = new Stage("FLAKY");
+
+  private Long thesisId;
+
+  @BeforeEach
+  void setUp() {
+    jobs.deleteAll();
+    thesisId = THESIS_IDS.incrementAndGet();
+    when(theses.findById(anyLong())).thenAnswer(inv -> Optional.of(Thesis.builder().id(inv.getArgument(0)).build()));
+  }
+
+  @Test
+  void aClaimedJobIsNotClaimedAgain() {
+    ProcessingPipeline nodeA = node(flaky);
+    ProcessingPipeline nodeB = node(flaky);
+    nodeA.submit(Thesis.builder().id(thesisId).build());
+
+    nodeA.poll();
+    nodeB.poll();
+
+    assertThat(handedOut).hasSize(1);
+    ProcessingJob job = onlyJob();
+    assertThat(job.getStatus()).isEqualTo(ProcessingJob.Status.RUNNING);
+    assertThat(job.getAttempts()).isEqualTo(1);
+    assertThat(jobs.claim(job.getId(), "other-node", Instant.now(),
+      ProcessingJob.Status.QUEUED, ProcessingJob.Status.RUNNING)).isZero();
+  }
+
+  @Test
+  void aFailingStageIsRetriedLaterThenFails() {
+    flaky.failing = true;
+    ProcessingPipeline pipeline = node(flaky);
+    pipeline.submit(Thesis.builder().id(thesisId).build());
+
+    Instant before = Instant.now();
+    runNext(pipeline);
+    ProcessingJob job = onlyJob();
+    assertThat(job.getStatus()).isEqualTo(ProcessingJob.Status.QUEUED);
+    assertThat(job.getRunAfter()).isAfterOrEqualTo(before.plus(BACKOFF));
+    assertThat(job.getLastError()).isEqualTo("boom");
+
+    pipeline.poll();
+    assertThat(handedOut).isEmpty(); // not before its runAfter
+
+    jobs.release(job.getId(), ProcessingJob.Status.QUEUED, Instant.now().minusSeconds(1), job.getLastError(), Instant.now());
+    runNext(pipeline);
+    job = onlyJob();
+    assertThat(job.getStatus()).isEqualTo(ProcessingJob.Status.FAILED);
+    assertThat(job.getAttempts()).isEqualTo(2);
+    assertThat(flaky.runs).isEqualTo(2);
+  }
+
+  @Test
+  void aStageThatSucceedsIsDone() {
+    ProcessingPipeline pipeline = node(flaky);
+    pipeline.submit(Thesis.builder().id(thesisId).build());
+
+    runNext(pipeline);
+
+    assertThat(onlyJob().getStatus()).isEqualTo(ProcessingJob.Status.DONE);
+  }
+
+  @Test
+  void rerunQueuesADoneStageAndAddsAMissingOne() {
+    ProcessingPipeline pipeline = node(flaky);
+    pipeline.submit(Thesis.builder().id(thesisId).build());
+    runNext(pipeline);
+
+    assertThat(pipeline.rerun(thesisId, "FLAKY")).isEqualTo(ProcessingJob.Status.QUEUED);
+    assertThat(pipeline.rerun(thesisId, "FLAKY")).isEqualTo(ProcessingJob.Status.QUEUED);
+    assertThat(pipeline.rerun(thesisId, "PREVIEW")).isEqualTo(ProcessingJob.Status.QUEUED);
+
+    assertThat(pipeline.status(thesisId))
+      .extracting(ProcessingJob::getStage, ProcessingJob::getStatus, ProcessingJob::getAttempts)
+      .containsExactly(
+        tuple("FLAKY", ProcessingJob.Status.QUEUED, 0),
+        tuple("PREVIEW", ProcessingJob.Status.QUEUED, 0));
+  }
+
+  private ProcessingPipeline node(ProcessingStage... stages) {
+    ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+    when(executor.getMaxPoolSize()).thenReturn(2);
+    doAnswer(inv -> handedOut.add(inv.getArgument(0))).when(executor).execute(any(Runnable.class));
+    return new ProcessingPipeline(jobs, theses, List.of(stages), executor, true, 2, BACKOFF, Duration.ofMinutes(30));
+  }
+
+  // claims the next runnable job and runs it on this thread
+  private void runNext(ProcessingPipeline pipeline) {
+    pipeline.poll();
+    assertThat(handedOut).hasSize(1);
+    handedOut.remove(0).run();
+    handedOut.clear(); // the worker's own follow-up poll finds nothing more
+  }
+
+  private ProcessingJob onlyJob() {
+    List<ProcessingJob> mine = jobs.findByThesisIdOrderById(thesisId);
+    assertThat(mine).hasSize(1);
+    return mine.get(0);
+  }
+
+  private static final class Stage implements ProcessingStage {
+    private final String name;
+    boolean failing;
+    int runs;
+
+    Stage(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public void run(Thesis thesis) {
+      runs++;
+      if (failing) {
+        throw new IllegalStateException("boom");
+      }
+    }
+  }
+}
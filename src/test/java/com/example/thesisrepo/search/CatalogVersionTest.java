@@ -0,0 +1,88 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two "nodes" sharing the catalog_state row of the H2 test database, each with
+ * its own CatalogVersion and a publisher that only records the reloads it asks for.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogVersionTest {
+
+  @Autowired CatalogStateRepository states;
+
+  private final List<Object> eventsA = new ArrayList<>();
+  private final List<Object> eventsB = new ArrayList<>();
+  private CatalogVersion nodeA;
+  private CatalogVersion nodeB;
+
+  @BeforeEach
+  void setUp() {
+    nodeA = node(eventsA);
+    nodeB = node(eventsB);
+  }
+
+  @Test
+  void nodesShareTheVersion() {
+    assertThat(nodeA.current()).isEqualTo(nodeB.current());
+  }
+
+  @Test
+  void aPublishElsewhereIsPickedUpBySync() {
+    long before = nodeB.current();
+    nodeA.bump(published(7L));
+    assertThat(nodeA.current()).isEqualTo(before + 1);
+    assertThat(nodeA.ofThesis(7L)).isEqualTo(before + 1);
+
+    nodeB.sync();
+
+    assertThat(eventsB).containsExactly(new CatalogReloadEvent(before + 1));
+    assertThat(nodeB.current()).isEqualTo(nodeA.current());
+    assertThat(nodeB.ofThesis(7L)).isEqualTo(before + 1);
+    assertThat(eventsA).isEmpty();
+  }
+
+  @Test
+  void aBumpThatSkipsAVersionReloads() {
+    long before = nodeA.current();
+    nodeA.bump(published(7L));
+    nodeB.bump(published(8L)); // B never saw A's change
+
+    assertThat(eventsB).containsExactly(new CatalogReloadEvent(before + 2));
+    assertThat(nodeB.current()).isEqualTo(before + 2);
+
+    nodeA.sync();
+    assertThat(eventsA).containsExactly(new CatalogReloadEvent(before + 2));
+    assertThat(nodeA.current()).isEqualTo(nodeB.current());
+  }
+
+  @Test
+  void syncWithoutChangesDoesNothing() {
+    nodeA.sync();
+    assertThat(eventsA).isEmpty();
+  }
+
+  private CatalogVersion node(List<Object> events) {
+    CatalogVersion version = new CatalogVersion(states, events::add);
+    ReflectionTestUtils.setField(version, "sync", true);
+    version.init();
+    return version;
+  }
+
+  private static ThesisPublishedEvent published(Long id) {
+    return new ThesisPublishedEvent(Thesis.builder().id(id).build());
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.thesisrepo.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndonesianStemmerTest {
+
+  @ParameterizedTest(name = "{0} → {1}")
+  @CsvSource({
+    // meN- and its assimilated forms
+    "menulis,      tulis",
+    "memukul,      pukul",
+    "menyapu,      sapu",
+    "mengambil,    ambil",
+    "membaca,      baca",
+    "mendengar,    dengar",
+    // peN- with -an
+    "penelitian,   teliti",
+    "penulisan,    tulis",
+    "pembangunan,  bangun",
+    "pengembangan, embang",
+    "penyelesaian, selesai",
+    // di-, ter-, ke-
+    "dimakan,      makan",
+    "ditulis,      tulis",
+    "terbaca,      baca",
+    "kebersihan,   bersih",
+    // ber- and be-…er
+    "bermain,      main",
+    "berlari,      lari",
+    "bekerja,      kerja",
+    "belajar,      ajar",
+    // -kan, -i
+    "menggunakan,  guna",
+    "mendekati,    dekat",
+    // particles and possessives
+    "bukunya,      buku",
+    "bukumu,       buku",
+    "apakah,       apa",
+    // two syllables or fewer are left alone
+    "buku,         buku",
+    "makan,        makan",
+    "di,           di",
+  })
+  void stems(String word, String expected) {
+    assertThat(stem(word)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @CsvSource({
+    "menulis,     penulis,     ditulis,   tulisan",
+    "membangun,   pembangunan, dibangun,  bangunan",
+    "mengajarkan, pengajaran,  diajarkan, ajaran",
+  })
+  void affixVariantsCollapse(String a, String b, String c, String d) {
+    assertThat(stem(b)).isEqualTo(stem(a));
+    assertThat(stem(c)).isEqualTo(stem(a));
+    assertThat(stem(d)).isEqualTo(stem(a));
+  }
+
+  private static String stem(String word) {
+    char[] buf = word.toCharArray();
+    int len = new IndonesianStemmer().stem(buf, buf.length);
+    return new String(buf, 0, len);
+  }
+}
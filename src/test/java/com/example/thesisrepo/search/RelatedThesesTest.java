@@ -0,0 +1,81 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RelatedThesesTest {
+
+  private final ThesisRepository theses = mock(ThesisRepository.class);
+  private final RelatedTheses related = new RelatedTheses(theses);
+
+  private final Thesis supply = thesis(1L, "supply chain logistics resilience", "supply chain");
+  private final Thesis logistics = thesis(2L, "logistics network supply planning", "logistics");
+  private final Thesis warehouse = thesis(3L, "warehouse logistics supply automation", "warehouse");
+  private final Thesis banking = thesis(4L, "cybersecurity framework banking", "security");
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(related, "k", 2);
+    when(theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED))
+      .thenReturn(List.of(supply, logistics, warehouse, banking));
+    related.rebuild();
+  }
+
+  @Test
+  void neighboursShareTerms() {
+    assertThat(ids(1L)).containsExactlyInAnyOrder(2L, 3L);
+    assertThat(ids(4L)).isEmpty();
+  }
+
+  @Test
+  void aWithdrawnThesisLeavesEveryList() {
+    supply.setCurrentStatus(Thesis.ThesisStatus.APPROVED);
+    related.onWithdrawn(new ThesisWithdrawnEvent(supply));
+
+    assertThat(related.related(1L)).isNull();
+    assertThat(ids(2L)).containsExactly(3L);
+    assertThat(ids(3L)).containsExactly(2L);
+  }
+
+  @Test
+  void aWithdrawnThesisIsNotRecommendedForNewTheses() {
+    related.onWithdrawn(new ThesisWithdrawnEvent(supply));
+    related.onPublished(new ThesisPublishedEvent(thesis(5L, "supply chain resilience logistics", "supply chain")));
+
+    assertThat(ids(5L)).doesNotContain(1L).contains(2L);
+  }
+
+  @Test
+  void publishingAgainBringsItBack() {
+    related.onWithdrawn(new ThesisWithdrawnEvent(supply));
+    related.onPublished(new ThesisPublishedEvent(supply));
+
+    assertThat(ids(1L)).containsExactlyInAnyOrder(2L, 3L);
+    assertThat(ids(2L)).contains(1L);
+  }
+
+  private List<Long> ids(long thesisId) {
+    return related.related(thesisId).stream().map(RelatedTheses.Neighbour::thesisId).toList();
+  }
+
+  private static Thesis thesis(long id, String abstractText, String keywords) {
+    return Thesis.builder()
+      .id(id)
+      .title("Thesis " + id)
+      .abstractText(abstractText)
+      .keywords(keywords)
+      .currentStatus(Thesis.ThesisStatus.PUBLISHED)
+      .build();
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.thesisrepo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+  private static final Suggestion SUPPLY = new Suggestion("Supply Chain", "keyword", 3);
+  private static final Suggestion SUPPORT = new Suggestion("Support Vector Machine", "keyword", 5);
+  private static final Suggestion SURVEY = new Suggestion("Survey", "keyword", 5);
+  private static final Suggestion CHAIN = new Suggestion("Chain Stores", "title", 1);
+
+  private final SuggestionTrie trie = SuggestionTrie.build(
+    List.of(SUPPLY, SUPPORT, SURVEY, CHAIN),
+    List.of(
+      List.of("supply chain", "chain"),
+      List.of("support vector machine", "vector machine", "machine"),
+      List.of("survey"),
+      List.of("chain stores", "stores")),
+    10);
+
+  @Test
+  void heaviestCompletionsComeFirstThenByText() {
+    assertThat(trie.complete("su", 10)).containsExactly(SUPPORT, SURVEY, SUPPLY);
+  }
+
+  @Test
+  void longerPrefixesNarrowTheResult() {
+    assertThat(trie.complete("supp", 10)).containsExactly(SUPPORT, SUPPLY);
+    assertThat(trie.complete("suppl", 10)).containsExactly(SUPPLY);
+  }
+
+  @Test
+  void everyKeyOfASuggestionFindsIt() {
+    assertThat(trie.complete("mach", 10)).containsExactly(SUPPORT);
+    assertThat(trie.complete("chain", 10)).containsExactly(SUPPLY, CHAIN);
+  }
+
+  @Test
+  void aSuggestionIsListedOnceEvenIfSeveralKeysMatch() {
+    SuggestionTrie t = SuggestionTrie.build(
+      List.of(SUPPLY), List.of(List.of("supply chain", "supply")), 10);
+    assertThat(t.complete("supply", 10)).containsExactly(SUPPLY);
+  }
+
+  @Test
+  void limitCutsTheResult() {
+    assertThat(trie.complete("su", 2)).containsExactly(SUPPORT, SURVEY);
+  }
+
+  @Test
+  void nodesKeepOnlyMaxPerNode() {
+    SuggestionTrie small = SuggestionTrie.build(
+      List.of(SUPPLY, SUPPORT, SURVEY),
+      List.of(List.of("supply chain"), List.of("support vector machine"), List.of("survey")),
+      1);
+    assertThat(small.complete("su", 10)).containsExactly(SUPPORT);
+  }
+
+  @Test
+  void unknownPrefixHasNoCompletions() {
+    assertThat(trie.complete("xyz", 10)).isEmpty();
+    assertThat(SuggestionTrie.empty().complete("su", 10)).isEmpty();
+  }
+
+  @Test
+  void prefixesPastTheKeyLimitAreAnsweredFromTheDeepestNode() {
+    String longKey = "a".repeat(SuggestionTrie.MAX_KEY_LENGTH + 6);
+    Suggestion s = new Suggestion(longKey, "title", 1);
+    SuggestionTrie t = SuggestionTrie.build(List.of(s), List.of(List.of(longKey)), 10);
+    assertThat(t.complete(longKey + "bbb", 10)).containsExactly(s);
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.search.TextAnalyzer.Language;
+import com.example.thesisrepo.search.TextAnalyzer.QueryTerm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+  @ParameterizedTest(name = "{0}")
+  @CsvSource(delimiter = '|', value = {
+    "Analisis pengaruh media sosial terhadap perilaku mahasiswa | INDONESIAN",
+    "The effect of social media on the behaviour of students    | ENGLISH",
+    "Machine learning untuk deteksi penyakit                    | INDONESIAN",
+    "Deep learning                                              | INDONESIAN",
+  })
+  void detectsTheLanguage(String title, Language expected) {
+    assertThat(TextAnalyzer.detect(title)).isEqualTo(expected);
+  }
+
+  @Test
+  void detectionCountsEveryField() {
+    assertThat(TextAnalyzer.detect("Deep learning", "A study of the models that are used in the field"))
+      .isEqualTo(Language.ENGLISH);
+  }
+
+  @Test
+  void indexTermsAreSurfaceFormsAndStems() {
+    assertThat(analyze("Penelitian dan Pengembangan Sistem", Language.INDONESIAN))
+      .containsExactly("penelitian", "teliti", "pengembangan", "embang", "sistem");
+    assertThat(analyze("Modelling the connections", Language.ENGLISH))
+      .containsExactly("modelling", "model", "connections", "connect");
+  }
+
+  @Test
+  void stopwordsOfEitherLanguageAreDropped() {
+    assertThat(analyze("the analisis of data dan model", Language.INDONESIAN))
+      .containsExactly("analisis", "data", "model");
+  }
+
+  @Test
+  void numbersAndCodesAreNotStemmed() {
+    assertThat(analyze("covid19 2024 penggunaan", Language.INDONESIAN))
+      .containsExactly("covid19", "2024", "penggunaan", "guna");
+  }
+
+  @Test
+  void longTokensAreCut() {
+    String word = "a".repeat(TextAnalyzer.MAX_TOKEN_LENGTH + 10);
+    assertThat(analyze(word, Language.INDONESIAN))
+      .containsExactly("a".repeat(TextAnalyzer.MAX_TOKEN_LENGTH));
+  }
+
+  @Test
+  void queryTermsCarryTheStemOfEveryLanguage() {
+    List<QueryTerm> terms = TextAnalyzer.analyzeQuery("Pengembangan connections");
+    assertThat(terms).containsExactly(
+      new QueryTerm("pengembangan", List.of("embang")),
+      new QueryTerm("connections", List.of("connect")));
+  }
+
+  @Test
+  void aTrailingStopwordIsKeptAsAPrefix() {
+    assertThat(TextAnalyzer.analyzeQuery("sistem di"))
+      .extracting(QueryTerm::surface)
+      .containsExactly("sistem", "di");
+    assertThat(TextAnalyzer.analyzeQuery("di sistem"))
+      .extracting(QueryTerm::surface)
+      .containsExactly("sistem");
+  }
+
+  private static List<String> analyze(String text, Language language) {
+    List<String> out = new ArrayList<>();
+    TextAnalyzer.analyze(text, language, out::add);
+    return out;
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisFullTextRepository;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ThesisSearchIndexTest {
+
+  private final ThesisRepository theses = mock(ThesisRepository.class);
+  private final ThesisSearchIndex index = new ThesisSearchIndex(theses, mock(ThesisFullTextRepository.class));
+
+  @BeforeEach
+  void setUp() {
+    when(theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED)).thenReturn(List.of(
+      thesis(1L, "Sistem Informasi Manajemen Rumah Sakit", 2023),
+      thesis(2L, "Sistem Informasi Akademik Kampus", 2024),
+      thesis(3L, "Analisis Sentimen Media Sosial", 2024)));
+    index.rebuild();
+  }
+
+  @Test
+  void fuzzySkipsStopwordsThatWereNeverIndexed() {
+    assertThat(index.searchFuzzy("sistem informasi dan manajemen", 0.3)).containsExactly(1L);
+    assertThat(index.searchFuzzy("sistim infromasi dan", 0.3)).containsExactlyInAnyOrder(1L, 2L);
+  }
+
+  @Test
+  void fuzzyFacetsCountTheSameMatches() {
+    assertThat(index.facetCounts("sistem informasi dan manajemen", 0.3, false, null, null, null, null)
+      .get("year")).containsExactly(Map.entry("2023", 1));
+  }
+
+  @Test
+  void exactHitsComeInIndexOrder() {
+    assertThat(index.search("sistem", false)).containsExactly(1L, 2L);
+  }
+
+  @Test
+  void deadOrdinalsAreCompactedPastTheThreshold() {
+    ReflectionTestUtils.setField(index, "maxDeadOrdinals", 2);
+    Thesis akademik = thesis(2L, "Sistem Informasi Akademik Kampus", 2024);
+    index.index(akademik);
+    index.index(akademik);
+    assertThat(index.ordinalCount()).isEqualTo(5);
+
+    akademik.setTitle("Perpustakaan Digital Kampus");
+    index.index(akademik);
+    assertThat(index.ordinalCount()).isEqualTo(3);
+
+    assertThat(index.search("sistem", false)).containsExactly(1L);
+    assertThat(index.search("kampus", false)).containsExactly(2L);
+    assertThat(index.searchFuzzy("akademk", 0.3)).isEmpty();
+    assertThat(index.facetCounts(null, null, false, null, null, null, null).get("year"))
+      .isEqualTo(Map.of("2023", 1, "2024", 2));
+
+    Thesis sentimen = thesis(3L, "Analisis Sentimen Media Sosial", 2024);
+    sentimen.setCurrentStatus(Thesis.ThesisStatus.APPROVED);
+    index.index(sentimen);
+    assertThat(index.search("sentimen", false)).isEmpty();
+    assertThat(index.facetCounts(null, null, false, null, null, null, null).get("year"))
+      .isEqualTo(Map.of("2023", 1, "2024", 1));
+  }
+
+  private static Thesis thesis(Long id, String title, int year) {
+    return Thesis.builder()
+      .id(id)
+      .title(title)
+      .yearPublished(year)
+      .currentStatus(Thesis.ThesisStatus.PUBLISHED)
+      .build();
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.ThesisRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ThesisSearchServiceTest {
+
+  private final ThesisRepository theses = mock(ThesisRepository.class);
+  private final ThesisSearchIndex index = mock(ThesisSearchIndex.class);
+  private final ThesisSearchService service = new ThesisSearchService(theses, index);
+
+  @Test
+  void postgresFacetsComeFromTheSameMatchAsTheRows() {
+    ReflectionTestUtils.setField(service, "backend", "postgres");
+    when(theses.countPublishedFacets(eq("sistem & informasi:*"), eq(false), any(), isNull(), eq("Teknik"), isNull()))
+      .thenReturn(List.of(
+        new Object[] { "year", "2023", 2L },
+        new Object[] { "faculty", "Teknik", 3L },
+        new Object[] { "major", "Informatika", 1L }));
+
+    Map<String, Map<String, Integer>> facets =
+      service.facetCounts("sistem informasi", false, false, null, null, "Teknik", null);
+
+    assertThat(facets).isEqualTo(Map.of(
+      "year", Map.of("2023", 2),
+      "faculty", Map.of("Teknik", 3),
+      "major", Map.of("Informatika", 1)));
+    verifyNoInteractions(index);
+  }
+
+  @Test
+  void postgresFacetsHonourTheAuthorFilter() {
+    ReflectionTestUtils.setField(service, "backend", "postgres");
+    when(index.searchAuthor("rizki")).thenReturn(List.of(4L, 7L));
+
+    Map<String, Map<String, Integer>> facets =
+      service.facetCounts("sistem", false, false, "rizki", null, null, null);
+
+    assertThat(facets).containsOnlyKeys("year", "faculty", "major");
+    verify(theses).countPublishedFacets("sistem:*", true, new Long[] { 4L, 7L }, null, null, null);
+  }
+
+  @Test
+  void fuzzyFacetsStayInMemoryOnThePostgresBackend() {
+    ReflectionTestUtils.setField(service, "backend", "postgres");
+    ReflectionTestUtils.setField(service, "fuzzyThreshold", 0.3);
+
+    service.facetCounts("sistim", true, false, null, null, null, null);
+
+    verify(index).facetCounts("sistim", 0.3, false, null, null, null, null);
+    verify(theses, never())
+      .countPublishedFacets(any(), anyBoolean(), any(), any(), any(), any());
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.thesisrepo.search;
+
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisPublishedEvent;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.thesis.ThesisWithdrawnEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ThesisSuggesterTest {
+
+  private final ThesisRepository theses = mock(ThesisRepository.class);
+  private long nextId = 1;
+  private final ThesisSuggester suggester = new ThesisSuggester(theses);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(suggester, "maxResults", 3);
+    when(theses.findByCurrentStatus(Thesis.ThesisStatus.PUBLISHED)).thenReturn(List.of(
+      thesis("Supply Chain Resilience in Jakarta", "supply chain, logistics", "Ahmad Rizki", "Dr. Sari"),
+      thesis("Optimasi Supply Chain UMKM", "Supply Chain, UMKM", "Budi Santoso", "Dr. Sari")));
+    suggester.rebuild();
+  }
+
+  @Test
+  void keywordsAreWeightedByHowManyThesesUseThem() {
+    assertThat(suggester.suggest("supply", null)).first()
+      .isEqualTo(new Suggestion("supply chain", "keyword", 2));
+  }
+
+  @Test
+  void titlesAreFoundFromTheStartOfAnyWord() {
+    assertThat(suggester.suggest("resil", null))
+      .containsExactly(new Suggestion("Supply Chain Resilience in Jakarta", "title", 1));
+  }
+
+  @Test
+  void prefixIsNormalizedLikeTheIndex() {
+    assertThat(suggester.suggest("  SUPPLY   Chain ", null))
+      .isEqualTo(suggester.suggest("supply chain", null));
+  }
+
+  @Test
+  void peopleAreSuggestedWithTheirRole() {
+    assertThat(suggester.suggest("dr sa", null))
+      .containsExactly(new Suggestion("Dr. Sari", "supervisor", 2));
+    assertThat(suggester.suggest("rizki", null))
+      .containsExactly(new Suggestion("Ahmad Rizki", "author", 1));
+  }
+
+  @Test
+  void limitIsCappedByMaxResults() {
+    assertThat(suggester.suggest("s", 100)).hasSize(3);
+    assertThat(suggester.suggest("s", 1)).hasSize(1);
+    assertThat(suggester.suggest("s", 0)).hasSize(3);
+  }
+
+  @Test
+  void blankPrefixHasNoSuggestions() {
+    assertThat(suggester.suggest("  ", null)).isEmpty();
+    assertThat(suggester.suggest(null, null)).isEmpty();
+  }
+
+  @Test
+  void publishingAddsToTheTrieWithoutAReload() {
+    assertThat(suggester.suggest("tenun", null)).isEmpty();
+    suggester.onPublished(new ThesisPublishedEvent(
+      thesis("Tenun Ikat Digital Archive", null, "Citra Dewi", "Dr. Sari")));
+    assertThat(suggester.suggest("tenun", null))
+      .containsExactly(new Suggestion("Tenun Ikat Digital Archive", "title", 1));
+    assertThat(suggester.suggest("dr sa", null))
+      .containsExactly(new Suggestion("Dr. Sari", "supervisor", 3));
+  }
+
+  @Test
+  void republishingReplacesTheEarlierContribution() {
+    Thesis tenun = thesis("Tenun Ikat Digital Archive", "tenun", "Citra Dewi", "Dr. Sari");
+    suggester.onPublished(new ThesisPublishedEvent(tenun));
+    tenun.setKeywords("weaving");
+    suggester.onPublished(new ThesisPublishedEvent(tenun));
+    assertThat(suggester.suggest("dr sa", null))
+      .containsExactly(new Suggestion("Dr. Sari", "supervisor", 3));
+    assertThat(suggester.suggest("tenun", null))
+      .containsExactly(new Suggestion("Tenun Ikat Digital Archive", "title", 1));
+    assertThat(suggester.suggest("weav", null))
+      .containsExactly(new Suggestion("weaving", "keyword", 1));
+  }
+
+  @Test
+  void withdrawingTakesTheContributionBack() {
+    Thesis tenun = thesis("Tenun Ikat Digital Archive", null, "Citra Dewi", "Dr. Sari");
+    suggester.onPublished(new ThesisPublishedEvent(tenun));
+    suggester.onWithdrawn(new ThesisWithdrawnEvent(tenun));
+    assertThat(suggester.suggest("tenun", null)).isEmpty();
+    assertThat(suggester.suggest("dr sa", null))
+      .containsExactly(new Suggestion("Dr. Sari", "supervisor", 2));
+  }
+
+  private Thesis thesis(String title, String keywords, String student, String supervisor) {
+    return Thesis.builder()
+      .id(nextId++)
+      .title(title)
+      .keywords(keywords)
+      .studentName(student)
+      .supervisorName(supervisor)
+      .build();
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.thesisrepo.service;
+
+import com.example.thesisrepo.storage.StoredBlob;
+import com.example.thesisrepo.storage.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reference counting of content-addressed blobs against the H2 test database,
+ * with the store in a temporary directory.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LocalStorageServiceTest {
+
+  @Autowired StoredBlobRepository blobs;
+
+  @TempDir Path root;
+  @TempDir Path incoming;
+
+  LocalStorageService storage;
+
+  @BeforeEach
+  void setUp() {
+    storage = new LocalStorageService(blobs);
+    ReflectionTestUtils.setField(storage, "root", root.toString());
+    ReflectionTestUtils.setField(storage, "contentAddressed", true);
+  }
+
+  @Test
+  void identicalUploadIsReferencedNotWrittenAgain() throws IOException {
+    byte[] pdf = uniquePdf();
+    String first = storage.savePdf(upload(pdf), "2026-10/a.pdf");
+    Path blob = Path.of(URI.create(first));
+    FileTime written = Files.getLastModifiedTime(blob);
+
+    Path second = upload(pdf);
+    assertThat(storage.savePdf(second, "2026-10/b.pdf")).isEqualTo(first);
+
+    assertThat(second).exists(); // never moved onto the blob
+    assertThat(Files.getLastModifiedTime(blob)).isEqualTo(written);
+    assertThat(storedFiles()).containsExactly(blob);
+    assertThat(refCount(blob)).isEqualTo(2);
+  }
+
+  @Test
+  void streamedDuplicateOnlyAddsAReference() throws IOException {
+    byte[] pdf = uniquePdf();
+    String first = storage.savePdf(new ByteArrayInputStream(pdf), "2026-10/a.pdf");
+    assertThat(storage.savePdf(new ByteArrayInputStream(pdf), "2026-10/b.pdf")).isEqualTo(first);
+
+    Path blob = Path.of(URI.create(first));
+    assertThat(storedFiles()).containsExactly(blob); // .incoming is cleaned up
+    assertThat(refCount(blob)).isEqualTo(2);
+  }
+
+  @Test
+  void blobIsDeletedWithItsLastReference() throws IOException {
+    byte[] pdf = uniquePdf();
+    String locator = storage.savePdf(upload(pdf), "2026-10/a.pdf");
+    storage.savePdf(upload(pdf), "2026-10/b.pdf");
+    Path blob = Path.of(URI.create(locator));
+
+    storage.release(locator);
+    assertThat(blob).exists();
+    assertThat(refCount(blob)).isEqualTo(1);
+
+    storage.release(locator);
+    assertThat(blob).doesNotExist();
+    assertThat(blobs.findById(sha256(blob))).isEmpty();
+  }
+
+  @Test
+  void releasingAFileThatIsNotABlobLeavesItAlone() throws IOException {
+    ReflectionTestUtils.setField(storage, "contentAddressed", false);
+    String locator = storage.savePdf(upload(uniquePdf()), "2026-10/plain.pdf");
+
+    storage.release(locator);
+    assertThat(Path.of(URI.create(locator))).exists();
+  }
+
+  private Path upload(byte[] content) throws IOException {
+    Path file = Files.createTempFile(incoming, "upload", ".pdf");
+    Files.write(file, content);
+    return file;
+  }
+
+  private static byte[] uniquePdf() {
+    return ("%PDF-1.7\n% " + UUID.randomUUID() + "\n%%EOF\n").getBytes();
+  }
+
+  private List<Path> storedFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(root)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+
+  private int refCount(Path blob) {
+    return blobs.findById(sha256(blob)).map(StoredBlob::getRefCount).orElse(0);
+  }
+
+  private static String sha256(Path blob) {
+    return ContentHash.fromBlobName(blob.getFileName().toString());
+  }
+}
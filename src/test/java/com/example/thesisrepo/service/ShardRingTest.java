@@ -0,0 +1,75 @@
+package com.example.thesisrepo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRingTest {
+
+  private static final int VNODES = 128;
+  private static final int KEYS = 20_000;
+
+  private static final Path A = Path.of("/srv/shard-a");
+  private static final Path B = Path.of("/srv/shard-b");
+  private static final Path C = Path.of("/srv/shard-c");
+  private static final Path D = Path.of("/srv/shard-d");
+
+  @Test
+  void placementIsDeterministic() {
+    ShardRing first = new ShardRing(List.of(A, B, C), VNODES);
+    ShardRing second = new ShardRing(List.of(C, A, B), VNODES);
+    for (String key : keys()) {
+      assertThat(first.owner(key)).isEqualTo(first.owner(key));
+      assertThat(second.owner(key)).isEqualTo(first.owner(key));
+    }
+  }
+
+  @Test
+  void everyRootGetsAShare() {
+    ShardRing ring = new ShardRing(List.of(A, B, C), VNODES);
+    Map<Path, Integer> counts = new HashMap<>();
+    for (String key : keys()) {
+      counts.merge(ring.owner(key), 1, Integer::sum);
+    }
+    assertThat(counts).containsOnlyKeys(A, B, C);
+    counts.values().forEach(n -> assertThat(n).isBetween(KEYS / 5, KEYS / 2));
+  }
+
+  @Test
+  void addingARootOnlyMovesKeysOntoIt() {
+    ShardRing before = new ShardRing(List.of(A, B, C), VNODES);
+    ShardRing after = new ShardRing(List.of(A, B, C, D), VNODES);
+    int moved = 0;
+    for (String key : keys()) {
+      Path now = after.owner(key);
+      if (!now.equals(before.owner(key))) {
+        assertThat(now).isEqualTo(D);
+        moved++;
+      }
+    }
+    // Ideally a quarter of the keys; leave room for the spread of the points.
+    assertThat(moved).isBetween(KEYS / 6, KEYS / 3);
+  }
+
+  @Test
+  void rejectsAnEmptyRootList() {
+    assertThatThrownBy(() -> new ShardRing(List.of(), VNODES))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<String> keys() {
+    List<String> keys = new ArrayList<>(KEYS);
+    for (int i = 0; i < KEYS; i++) {
+      String hex = String.format("%064x", i * 2654435761L);
+      keys.add("blobs/" + hex.substring(0, 2) + "/" + hex.substring(2, 4) + "/" + hex + ".pdf");
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.thesisrepo.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while a block runs, using
+ * Hibernate's own statistics (switched on here, so no config is needed).
+ *
+ * Statistics are per SessionFactory, so keep background work quiet while
+ * counting; the test profile has none.
+ */
+public final class QueryCounter {
+
+  @FunctionalInterface
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  private final Statistics statistics;
+
+  public QueryCounter(EntityManagerFactory emf) {
+    this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    this.statistics.setStatisticsEnabled(true);
+  }
+
+  /** Number of statements prepared while {@code action} ran. */
+  public long count(Action action) throws Exception {
+    statistics.clear();
+    action.run();
+    return statistics.getPrepareStatementCount();
+  }
+
+  /** Runs {@code action}, fails if it needed more than {@code max} statements, and returns the count. */
+  public long assertAtMost(long max, Action action) throws Exception {
+    long n = count(action);
+    assertThat(n).as("SQL statements").isLessThanOrEqualTo(max);
+    return n;
+  }
+}
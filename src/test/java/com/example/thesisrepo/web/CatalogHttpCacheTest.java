@@ -0,0 +1,49 @@
+package com.example.thesisrepo.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogHttpCacheTest {
+
+  @ParameterizedTest(name = "[{0}] → {1}")
+  @CsvSource(delimiter = '|', nullValues = "null", value = {
+    "null                          | false",
+    "''                            | false",
+    "gzip                          | true",
+    "gzip, deflate, br             | true",
+    "GZIP                          | true",
+    "x-gzip                        | true",
+    "br;q=1.0, gzip;q=0.8, *;q=0.1 | true",
+    "gzip;q=0                      | false",
+    "gzip;q=0.0, deflate           | false",
+    "gzip ; q=0                    | false",
+    "x-gzip-foo                    | false",
+    "gzipped, agzip                | false",
+    "deflate, br                   | false",
+    "identity                      | false",
+    "*                             | true",
+    "*;q=0.5                       | true",
+    "gzip;q=0.5                    | true",
+    "*, gzip;q=0                   | false",
+    "identity;q=1, gzip;q=0.5      | false",
+    "identity;q=0.5, gzip          | true",
+    "*;q=0, gzip;q=0.1             | true",
+    "gzip;q=abc                    | false",
+    "gzip;q=2                      | false",
+  })
+  void acceptsGzip(String header, boolean expected) {
+    assertThat(CatalogHttpCache.acceptsGzip(header)).isEqualTo(expected);
+  }
+
+  @Test
+  void ifNoneMatchListsTheTagOrAStar() {
+    assertThat(CatalogHttpCache.matches("\"c1\"", "\"c1\"")).isTrue();
+    assertThat(CatalogHttpCache.matches("\"c0\", W/\"c1\"", "\"c1\"")).isTrue();
+    assertThat(CatalogHttpCache.matches("*", "\"c1\"")).isTrue();
+    assertThat(CatalogHttpCache.matches("\"c0\"", "\"c1\"")).isFalse();
+    assertThat(CatalogHttpCache.matches(null, "\"c1\"")).isFalse();
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.thesis.PublicThesisView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeysetCursorTest {
+
+  private static final Instant AT = Instant.parse("2024-05-01T08:00:00Z");
+
+  @Test
+  void parsesPublishedAtAndId() {
+    assertThat(KeysetCursor.parse("2024-05-01T08:00:00Z,42")).isEqualTo(new KeysetCursor(AT, 42L));
+    assertThat(KeysetCursor.parse(" 2024-05-01T08:00:00Z , 42 ")).isEqualTo(new KeysetCursor(AT, 42L));
+  }
+
+  @Test
+  void roundTripsThroughToString() {
+    KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-05-01T08:00:00.123456Z"), 7L);
+    assertThat(KeysetCursor.parse(cursor.toString())).isEqualTo(cursor);
+  }
+
+  @Test
+  void missingCursorStartsFromTheTop() {
+    assertThat(KeysetCursor.parse(null)).isNull();
+    assertThat(KeysetCursor.parse("  ")).isNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"42", "2024-05-01T08:00:00Z", "2024-05-01,42", "2024-05-01T08:00:00Z,x", "yesterday,42"})
+  void rejectsMalformedCursors(String raw) {
+    assertThatThrownBy(() -> KeysetCursor.parse(raw)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void afterTheLastRowOfAPage() {
+    PublicThesisView last = mock(PublicThesisView.class);
+    when(last.getPublishedAt()).thenReturn(AT);
+    when(last.getId()).thenReturn(42L);
+    assertThat(KeysetCursor.after(last)).isEqualTo(new KeysetCursor(AT, 42L));
+    assertThat(KeysetCursor.after(null)).isNull();
+  }
+
+  @Test
+  void limitIsDefaultedAndCapped() {
+    assertThat(KeysetCursor.clampLimit(null)).isEqualTo(KeysetCursor.DEFAULT_LIMIT);
+    assertThat(KeysetCursor.clampLimit(0)).isEqualTo(KeysetCursor.DEFAULT_LIMIT);
+    assertThat(KeysetCursor.clampLimit(5)).isEqualTo(5);
+    assertThat(KeysetCursor.clampLimit(1000)).isEqualTo(KeysetCursor.MAX_LIMIT);
+  }
+}
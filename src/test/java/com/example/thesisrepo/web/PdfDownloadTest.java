@@ -0,0 +1,125 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.service.StoredFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfDownloadTest {
+
+  private static final long LENGTH = 100;
+  private static final long[] IGNORED = new long[0];
+
+  @Test
+  void closedRange() {
+    assertThat(PdfDownload.parseRange("bytes=0-9", LENGTH)).containsExactly(0, 9);
+    assertThat(PdfDownload.parseRange("bytes=10-10", LENGTH)).containsExactly(10, 10);
+  }
+
+  @Test
+  void endPastTheFileIsClipped() {
+    assertThat(PdfDownload.parseRange("bytes=90-500", LENGTH)).containsExactly(90, 99);
+  }
+
+  @Test
+  void openEndedRangeRunsToTheLastByte() {
+    assertThat(PdfDownload.parseRange("bytes=40-", LENGTH)).containsExactly(40, 99);
+  }
+
+  @Test
+  void suffixRangeIsTheLastNBytes() {
+    assertThat(PdfDownload.parseRange("bytes=-10", LENGTH)).containsExactly(90, 99);
+    assertThat(PdfDownload.parseRange("bytes=-500", LENGTH)).containsExactly(0, 99);
+  }
+
+  @Test
+  void emptySuffixIsUnsatisfiable() {
+    assertThat(PdfDownload.parseRange("bytes=-0", LENGTH)).isNull();
+  }
+
+  @Test
+  void startAtOrPastTheEndIsUnsatisfiable() {
+    assertThat(PdfDownload.parseRange("bytes=100-", LENGTH)).isNull();
+    assertThat(PdfDownload.parseRange("bytes=150-200", LENGTH)).isNull();
+    assertThat(PdfDownload.parseRange("bytes=0-", 0)).isNull();
+  }
+
+  @Test
+  void backwardsRangeIsIgnored() {
+    assertThat(PdfDownload.parseRange("bytes=5-3", LENGTH)).isEqualTo(IGNORED);
+  }
+
+  @Test
+  void multipleRangesAreIgnored() {
+    assertThat(PdfDownload.parseRange("bytes=0-9,20-29", LENGTH)).isEqualTo(IGNORED);
+  }
+
+  @Test
+  void malformedHeadersAreIgnored() {
+    assertThat(PdfDownload.parseRange("items=0-9", LENGTH)).isEqualTo(IGNORED);
+    assertThat(PdfDownload.parseRange("bytes=10", LENGTH)).isEqualTo(IGNORED);
+    assertThat(PdfDownload.parseRange("bytes=a-b", LENGTH)).isEqualTo(IGNORED);
+  }
+
+  @Test
+  void ifRangeWithTheCurrentEtagSendsTheRange() throws Exception {
+    MockHttpServletResponse response = send(HttpHeaders.IF_RANGE, "\"v1\"");
+    assertThat(response.getStatus()).isEqualTo(206);
+    assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-9/100");
+    assertThat(response.getContentAsByteArray()).hasSize(10);
+  }
+
+  @Test
+  void ifRangeWithAnOldEtagSendsTheWholeFile() throws Exception {
+    MockHttpServletResponse response = send(HttpHeaders.IF_RANGE, "\"v0\"");
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentAsByteArray()).hasSize((int) LENGTH);
+  }
+
+  @Test
+  void ifRangeWithTheLastModifiedDateSendsTheRange() throws Exception {
+    MockHttpServletResponse response = send(HttpHeaders.IF_RANGE, "Thu, 01 Jan 2026 00:00:00 GMT");
+    assertThat(response.getStatus()).isEqualTo(206);
+  }
+
+  @Test
+  void ifRangeWithAnotherDateSendsTheWholeFile() throws Exception {
+    MockHttpServletResponse response = send(HttpHeaders.IF_RANGE, "Wed, 31 Dec 2025 00:00:00 GMT");
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentAsByteArray()).hasSize((int) LENGTH);
+  }
+
+  private static MockHttpServletResponse send(String header, String value) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+    request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+    request.addHeader(header, value);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    PdfDownload.send(new MemoryFile(), "t.pdf", CacheControl.noCache(), request, response);
+    return response;
+  }
+
+  /** A remote-style stored file (no local path), last modified 2026-01-01T00:00:00Z. */
+  private static final class MemoryFile implements StoredFile {
+    private final byte[] content = "x".repeat((int) LENGTH).getBytes(StandardCharsets.US_ASCII);
+
+    @Override public long length() { return content.length; }
+    @Override public long lastModified() { return 1767225600000L; }
+    @Override public String version() { return "v1"; }
+    @Override public Path localPath() { return null; }
+
+    @Override
+    public InputStream openRange(long start, long endInclusive) {
+      return new ByteArrayInputStream(Arrays.copyOfRange(content, (int) start, (int) endInclusive + 1));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.thesisrepo.web;
+
+import com.example.thesisrepo.profile.LecturerProfile;
+import com.example.thesisrepo.profile.LecturerProfileRepository;
+import com.example.thesisrepo.profile.StudentProfile;
+import com.example.thesisrepo.profile.StudentProfileRepository;
+import com.example.thesisrepo.support.QueryCounter;
+import com.example.thesisrepo.thesis.SupervisorAssignment;
+import com.example.thesisrepo.thesis.SupervisorAssignmentRepository;
+import com.example.thesisrepo.thesis.Thesis;
+import com.example.thesisrepo.thesis.ThesisRepository;
+import com.example.thesisrepo.user.Role;
+import com.example.thesisrepo.user.User;
+import com.example.thesisrepo.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 query patterns: each endpoint is measured with a few rows,
+ * then again after seeding many more, and must issue the same (small) number
+ * of SQL statements both times.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountRegressionTest {
+
+  private static final AtomicInteger SEQ = new AtomicInteger();
+
+  @Autowired MockMvc mvc;
+  @Autowired EntityManagerFactory emf;
+  @Autowired TransactionTemplate tx;
+  @Autowired UserRepository users;
+  @Autowired StudentProfileRepository studentProfiles;
+  @Autowired LecturerProfileRepository lecturerProfiles;
+  @Autowired ThesisRepository theses;
+  @Autowired SupervisorAssignmentRepository assignments;
+
+  QueryCounter queries;
+
+  @BeforeEach
+  void setUp() {
+    queries = new QueryCounter(emf);
+  }
+
+  @Test
+  void adminSubmissionsDoNotLoadAProfilePerThesis() throws Exception {
+    for (int i = 0; i < 2; i++) thesisWithoutStudentName(student());
+    long few = queries.assertAtMost(2, () -> getOk("/api/admin/submissions", admin()));
+
+    for (int i = 0; i < 15; i++) thesisWithoutStudentName(student());
+    long many = queries.count(() -> getOk("/api/admin/submissions", admin()));
+
+    assertThat(many).isEqualTo(few);
+  }
+
+  @Test
+  void adminLecturerListDoesNotLoadAProfilePerUser() throws Exception {
+    lecturer();
+    long few = queries.assertAtMost(2, () -> getOk("/api/admin/lecturers", admin()));
+
+    for (int i = 0; i < 15; i++) lecturer();
+    long many = queries.count(() -> getOk("/api/admin/lecturers", admin()));
+
+    assertThat(many).isEqualTo(few);
+  }
+
+  @Test
+  void lecturerSuperviseePagesDoNotQueryPerStudent() throws Exception {
+    User lecturer = lecturer();
+    for (int i = 0; i < 2; i++) supervisee(lecturer);
+    long fewSupervisees = queries.assertAtMost(4, () -> getOk("/api/lecturers/my-supervisees", as(lecturer)));
+    long fewTheses = queries.assertAtMost(3, () -> getOk("/api/lecturers/theses", as(lecturer)));
+
+    for (int i = 0; i < 15; i++) supervisee(lecturer);
+    assertThat(queries.count(() -> getOk("/api/lecturers/my-supervisees", as(lecturer)))).isEqualTo(fewSupervisees);
+    assertThat(queries.count(() -> getOk("/api/lecturers/theses", as(lecturer)))).isEqualTo(fewTheses);
+  }
+
+  @Test
+  void studentSupervisorListsDoNotQueryPerLecturer() throws Exception {
+    User student = student();
+    assign(lecturer(), student);
+    long fewLinks = queries.assertAtMost(3, () -> getOk("/api/lecturers/supervisees", as(student)));
+    long fewSupervisors = queries.assertAtMost(3, () -> getOk("/api/theses/supervisors", as(student)));
+
+    for (int i = 0; i < 10; i++) assign(lecturer(), student);
+    assertThat(queries.count(() -> getOk("/api/lecturers/supervisees", as(student)))).isEqualTo(fewLinks);
+    assertThat(queries.count(() -> getOk("/api/theses/supervisors", as(student)))).isEqualTo(fewSupervisors);
+  }
+
+  // ── requests ──────────────────────────────────────────────────────────
+
+  private void getOk(String path, RequestPostProcessor principal) throws Exception {
+    mvc.perform(get(path).with(principal)).andExpect(status().isOk());
+  }
+
+  private static RequestPostProcessor admin() {
+    return user("admin@univ.local").roles("ADMIN");
+  }
+
+  private static RequestPostProcessor as(User u) {
+    return user(u.getEmail()).roles(u.getRole().name());
+  }
+
+  // ── seeding (one transaction each, so @MapsId profiles see their user) ──
+
+  private User student() {
+    int n = SEQ.incrementAndGet();
+    return tx.execute(s -> {
+      User u = users.save(User.builder().email("qc-student" + n + "@test.local").passwordHash("x").role(Role.STUDENT).build());
+      studentProfiles.save(StudentProfile.builder().user(u).name("Student " + n).studentNumber("QC" + n).build());
+      return u;
+    });
+  }
+
+  private User lecturer() {
+    int n = SEQ.incrementAndGet();
+    return tx.execute(s -> {
+      User u = users.save(User.builder().email("qc-lecturer" + n + "@test.local").passwordHash("x").role(Role.LECTURER).build());
+      lecturerProfiles.save(LecturerProfile.builder().user(u).name("Lecturer " + n)
+        .department("IS").faculty("Engineering").major("Information Systems").build());
+      return u;
+    });
+  }
+
+  private void supervisee(User lecturer) {
+    User student = student();
+    assign(lecturer, student);
+    thesisWithoutStudentName(student);
+    thesisWithoutStudentName(student);
+  }
+
+  private void assign(User lecturer, User student) {
+    assignments.save(SupervisorAssignment.builder().lecturer(lecturer).student(student).build());
+  }
+
+  private void thesisWithoutStudentName(User student) {
+    theses.save(Thesis.builder()
+      .student(student)
+      .title("Query count " + SEQ.incrementAndGet())
+      .currentStatus(Thesis.ThesisStatus.LIBRARY_REVIEW)
+      .submittedAt(Instant.now())
+      .build());
+  }
+}
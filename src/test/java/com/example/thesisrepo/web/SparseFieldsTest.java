@@ -0,0 +1,65 @@
+package com.example.thesisrepo.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SparseFieldsTest {
+
+  record Row(Long id, String title, String abstractText, Integer yearPublished) { }
+
+  private static final Row ROW = new Row(42L, "Supply Chain", "long abstract", 2024);
+
+  @Test
+  void missingParameterMeansAllFields() {
+    assertThat(SparseFields.parse(null, Row.class)).isNull();
+    assertThat(SparseFields.parse(" ", Row.class)).isNull();
+  }
+
+  @Test
+  void fieldsComeBackInDeclarationOrder() {
+    assertThat(SparseFields.parse("yearPublished,id,title", Row.class))
+      .containsExactly("id", "title", "yearPublished");
+  }
+
+  @Test
+  void blanksAndDuplicatesAreIgnored() {
+    assertThat(SparseFields.parse(" title , ,id,title,", Row.class)).containsExactly("id", "title");
+  }
+
+  @Test
+  void unknownFieldsAreRejectedByName() {
+    assertThatThrownBy(() -> SparseFields.parse("id,student,email", Row.class))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Unknown fields: email, student");
+  }
+
+  @Test
+  void namesAreCaseSensitive() {
+    assertThatThrownBy(() -> SparseFields.parse("Title", Row.class))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void applyKeepsTheRecordOrSelectsComponents() {
+    assertThat(SparseFields.apply(ROW, null)).isSameAs(ROW);
+    assertThat(SparseFields.apply(ROW, Set.of("title")))
+      .isEqualTo(Map.of("title", "Supply Chain"));
+  }
+
+  @Test
+  void toMapOfAllFieldsFollowsTheRecord() {
+    assertThat(SparseFields.toMap(ROW, null).keySet())
+      .containsExactly("id", "title", "abstractText", "yearPublished");
+  }
+
+  @Test
+  void cacheKeyDistinguishesAllFromASubset() {
+    assertThat(SparseFields.key(null)).isEqualTo("*");
+    assertThat(SparseFields.key(SparseFields.parse("title,id", Row.class))).isEqualTo("id,title");
+  }
+}